@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -16,6 +17,8 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
     private final String getAllBooking = "?state={state}&from={from}&size={size}";
     private final String getAllBookingOwner = "/owner?state={state}&from={from}&size={size}";
+    private final String getBookingsPage = "?state={state}&cursor={cursor}&size={size}";
+    private final String getBookingsPageOwner = "/owner?state={state}&cursor={cursor}&size={size}";
 
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
@@ -35,6 +38,10 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> approveBookings(long userId, List<BookingApprovalDto> approvals) {
+        return patch("/owner/batch", userId, approvals);
+    }
+
     public ResponseEntity<Object> getAllBookingsByUserId(long userId, Integer from, Integer size, String state) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
@@ -53,6 +60,24 @@ public class BookingClient extends BaseClient {
         return get(getAllBookingOwner, userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookingsPageByUserId(long userId, String cursor, Integer size, String state) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get(getBookingsPage, userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsPageForOwner(long userId, String cursor, Integer size, String state) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get(getBookingsPageOwner, userId, parameters);
+    }
+
     public ResponseEntity<Object> getBookingInfo(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -8,6 +8,8 @@ import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.validator.BookingValidator;
 import ru.practicum.shareit.validator.PageValidator;
 
+import java.util.List;
+
 
 /**
  * TODO Sprint add-bookings.
@@ -41,13 +43,29 @@ public class BookingController {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public ResponseEntity<Object> approveBookings(@RequestHeader(USER_ID) Long userId,
+                                                  @RequestBody List<BookingApprovalDto> approvals) {
+        bookingValidator.validateBookingApprovals(approvals);
+        log.info("Получен PATCH-запрос к эндпоинту: '/bookings/owner/batch' на обновление статусов {} бронирований " +
+                "владельцем с ID={}", approvals.size(), userId);
+        return bookingClient.approveBookings(userId, approvals);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllBookingsForUser(@RequestParam(name = "state", defaultValue = "ALL") String state,
                                                   @RequestHeader(USER_ID) Long userId,
                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                  @RequestParam(defaultValue = "10") Integer size) {
-        validator.checkingPageableParams(from, size);
+                                                  @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         bookingValidator.validateBookingState(state);
+        if (cursor != null) {
+            validator.checkingCursorPageSize(size);
+            log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение страницы бронирований " +
+                    "пользователя с ID={} с параметром STATE={} после курсора '{}'", userId, state, cursor);
+            return bookingClient.getBookingsPageByUserId(userId, cursor, size, state);
+        }
+        validator.checkingPageableParams(from, size);
         log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение " +
                 "списка всех бронирований пользователя с ID={} с параметром STATE={}", userId, state);
         return bookingClient.getAllBookingsByUserId(userId, from, size, state);
@@ -57,9 +75,16 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsForOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
                                                    @RequestHeader(USER_ID) Long userId,
                                                    @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
-        validator.checkingPageableParams(from, size);
+                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                   @RequestParam(required = false) String cursor) {
         bookingValidator.validateBookingState(state);
+        if (cursor != null) {
+            validator.checkingCursorPageSize(size);
+            log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение страницы бронирований " +
+                    "вещей пользователя с ID={} с параметром STATE={} после курсора '{}'", userId, state, cursor);
+            return bookingClient.getBookingsPageForOwner(userId, cursor, size, state);
+        }
+        validator.checkingPageableParams(from, size);
         log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение " +
                 "списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
         return bookingClient.getAllBookingsForOwner(userId, from, size, state);
@@ -5,10 +5,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +46,33 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    /**
+     * POST с телом, которое пишется в соединение по мере формирования. Тело не буферизуется, только если
+     * фабрика запросов клиента создана с {@code setBufferRequestBody(false)}.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, MediaType contentType,
+                                                StreamingHttpOutputMessage.Body body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setContentType(contentType);
+                body.writeTo(request.getBody());
+            }, rest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    /**
+     * GET, ответ которого копируется в {@code target} по мере получения, не собираясь в памяти шлюза.
+     */
+    protected void getStream(String path, MediaType accept, OutputStream target) {
+        rest.execute(path, HttpMethod.GET, request -> request.getHeaders().setAccept(List.of(accept)),
+                response -> StreamUtils.copy(response.getBody(), target));
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -1,36 +1,67 @@
 package ru.practicum.shareit.item;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
     private final String getItemsByUser = "?from={from}&size={size}";
-    private final String getItemsSearch = "/search?text={text}&from={from}&size={size}";
+    private final String getItemsSearch = "/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}";
+    private final String getItemsSearchFreeBetween = "/search?text={text}&from={from}&size={size}&start={start}" +
+            "&end={end}";
+    private final String getSuggestions = "/suggest?prefix={prefix}&size={size}";
+    private final Duration suggestCacheTtl;
+    private final Cache<String, ResponseEntity<Object>> suggestions;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      @Value("${shareit-gateway.suggest-cache-ttl:5s}") Duration suggestCacheTtl) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(ItemClient::streamingRequestFactory)
                         .build()
         );
+        this.suggestCacheTtl = suggestCacheTtl;
+        this.suggestions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(suggestCacheTtl)
+                .build();
+    }
+
+    /**
+     * Тела запросов не буферизуются, чтобы импорт передавал строки на сервер по мере чтения файла.
+     */
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setBufferRequestBody(false);
+        return factory;
     }
 
     public ResponseEntity<Object> createItemDto(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(long userId, StreamingHttpOutputMessage.Body rows) {
+        return postStream("/import", userId, ItemImportConverter.NDJSON, rows);
+    }
+
     public ResponseEntity<Object> updateItemDto(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -48,15 +79,70 @@ public class ItemClient extends BaseClient {
         return get(getItemsByUser, userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsDtoBySearch(long userId, Integer from, Integer size, String text) {
+    public ResponseEntity<Object> getItemsDtoBySearch(long userId, Integer from, Integer size, String text,
+                                                      Boolean fuzzy) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size
+                "size", size,
+                "fuzzy", fuzzy
         );
         return get(getItemsSearch, userId, parameters);
     }
 
+    public ResponseEntity<Object> getComments(long itemId, String after, Integer limit) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "limit", limit
+        );
+        return get("/" + itemId + "/comments?after={after}&limit={limit}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getFreeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemsDtoBySearchFreeBetween(long userId, Integer from, Integer size, String text,
+                                                                 LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "start", start,
+                "end", end
+        );
+        return get(getItemsSearchFreeBetween, userId, parameters);
+    }
+
+    /**
+     * Подсказки запрашиваются на каждое нажатие клавиши, поэтому успешные ответы сервера кэшируются на короткое
+     * время и в шлюзе, и у клиента через Cache-Control.
+     */
+    public ResponseEntity<Object> getSuggestions(String prefix, Integer size) {
+        String key = prefix.toLowerCase(Locale.ROOT) + "|" + size;
+        ResponseEntity<Object> cached = suggestions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        ResponseEntity<Object> response = get(getSuggestions, null, parameters);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        ResponseEntity<Object> cacheable = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(suggestCacheTtl))
+                .body(response.getBody());
+        suggestions.put(key, cacheable);
+        return cacheable;
+    }
+
     public ResponseEntity<Object> addCommentToItem(long userId, long itemId, CommentDto comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
@@ -2,13 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.validator.ItemValidator;
 import ru.practicum.shareit.validator.PageValidator;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TODO Sprint add-controllers.
@@ -21,6 +26,7 @@ public class ItemController {
     private final ItemClient itemClient;
     private final PageValidator validator;
     private final ItemValidator itemValidator;
+    private final ItemImportConverter importConverter;
     private static final String OWNER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -30,6 +36,19 @@ public class ItemController {
         return itemClient.createItemDto(ownerId, itemDto);
     }
 
+    /**
+     * Импорт вещей из NDJSON или CSV с заголовком name,description,available,requestId. Строки проверяются
+     * и передаются на сервер по мере чтения, ответ содержит ошибки по строкам и скорость записи.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<Object> importItems(@RequestHeader(OWNER) Long ownerId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream rows) {
+        log.info("Выполняется импорт вещей пользователя {}", ownerId);
+        MediaType type = MediaType.parseMediaType(contentType);
+        return itemClient.importItems(ownerId, target -> importConverter.convert(rows, type, target));
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable Long itemId, @RequestHeader(OWNER) Long ownerId) {
         log.info("Выполняется запрос на получение вещи под номером {}", itemId);
@@ -53,14 +72,56 @@ public class ItemController {
         return itemClient.updateItemDto(ownerId, itemId, itemDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @RequestParam(defaultValue = "") String after,
+                                              @RequestParam(defaultValue = "10") Integer limit) {
+        itemValidator.validateCommentsLimit(limit);
+        log.info("Выполняется запрос комментариев вещи под номером {} после курсора '{}'", itemId, after);
+        return itemClient.getComments(itemId, after, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getFreeIntervals(@PathVariable Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        itemValidator.validatePeriod(from, to);
+        log.info("Выполняется запрос свободных периодов вещи под номером {}", itemId);
+        return itemClient.getFreeIntervals(itemId, from, to);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> getItemsBySearchQuery(@RequestParam String text,
                                                      @RequestParam(defaultValue = "0") Integer from,
                                                      @RequestParam(defaultValue = "10") Integer size,
+                                                     @RequestParam(defaultValue = "false") Boolean fuzzy,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime start,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime end,
                                                      @RequestHeader(OWNER) Long ownerId) {
         validator.checkingPageableParams(from, size);
+        itemValidator.validateSearchPeriod(start, end, fuzzy);
         log.info("Выполняется запрос поиска вещи по строке {}", text);
-        return itemClient.getItemsDtoBySearch(ownerId, from, size, text);
+        if (start != null) {
+            return itemClient.getItemsDtoBySearchFreeBetween(ownerId, from, size, text, start, end);
+        }
+        return itemClient.getItemsDtoBySearch(ownerId, from, size, text, fuzzy);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> getSuggestions(@RequestParam String prefix,
+                                                 @RequestParam(defaultValue = "10") Integer size) {
+        itemValidator.validateSuggestionParams(size);
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        log.info("Выполняется запрос подсказок для строки {}", prefix);
+        return itemClient.getSuggestions(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.validator.ItemValidator;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Переводит файл импорта вещей (NDJSON или CSV с заголовком) в поток строк NDJSON для сервера, проверяя каждую
+ * строку по мере чтения. Строка, не прошедшая проверку, передаётся дальше только с номером и текстом ошибки,
+ * чтобы сервер вернул отчёт по всему файлу.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemImportConverter {
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final ItemValidator itemValidator;
+    private final ObjectMapper objectMapper;
+
+    public void convert(InputStream source, MediaType contentType, OutputStream target) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+        if (CSV.isCompatibleWith(contentType)) {
+            convertCsv(reader, writer);
+        } else {
+            convertNdjson(reader, writer);
+        }
+        writer.flush();
+    }
+
+    private void convertNdjson(BufferedReader reader, Writer writer) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemDto itemDto;
+            try {
+                itemDto = objectMapper.readValue(line, ItemDto.class);
+            } catch (JsonProcessingException e) {
+                write(writer, ItemImportRowDto.builder().line(lineNumber).error("Некорректная строка").build());
+                continue;
+            }
+            write(writer, toRow(lineNumber, itemDto));
+        }
+    }
+
+    private void convertCsv(BufferedReader reader, Writer writer) throws IOException {
+        long[] lineNumber = {0};
+        List<String> header = readCsvRecord(reader, lineNumber);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> record;
+        long recordLine = lineNumber[0] + 1;
+        while ((record = readCsvRecord(reader, lineNumber)) != null) {
+            if (!(record.size() == 1 && record.get(0).isBlank())) {
+                write(writer, toRow(recordLine, csvRecordToItem(record, columns)));
+            }
+            recordLine = lineNumber[0] + 1;
+        }
+    }
+
+    private static ItemDto csvRecordToItem(List<String> record, Map<String, Integer> columns) {
+        String available = column(record, columns, "available");
+        String requestId = column(record, columns, "requestid");
+        ItemDto itemDto = ItemDto.builder()
+                .name(column(record, columns, "name"))
+                .description(column(record, columns, "description"))
+                .available(available == null || available.isBlank() ? null
+                        : Boolean.valueOf(available.trim().equalsIgnoreCase("true")))
+                .build();
+        if (requestId != null && !requestId.isBlank()) {
+            try {
+                itemDto.setRequestId(Long.parseLong(requestId.trim()));
+            } catch (NumberFormatException e) {
+                itemDto.setRequestId(-1L);
+            }
+        }
+        return itemDto;
+    }
+
+    private ItemImportRowDto toRow(long line, ItemDto itemDto) {
+        try {
+            itemValidator.validateItemData(itemDto);
+            if (itemDto.getRequestId() != null && itemDto.getRequestId() < 0) {
+                throw new DataValidationException("Некорректный номер запроса");
+            }
+        } catch (DataValidationException e) {
+            return ItemImportRowDto.builder().line(line).error(e.getMessage()).build();
+        }
+        return ItemImportRowDto.builder()
+                .line(line)
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .requestId(itemDto.getRequestId())
+                .build();
+    }
+
+    private void write(Writer writer, ItemImportRowDto row) throws IOException {
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    /**
+     * Читает одну запись CSV: поля разделены запятыми, поле в кавычках может содержать запятые, переводы строк
+     * и удвоенные кавычки. Возвращает {@code null} в конце потока.
+     */
+    private static List<String> readCsvRecord(BufferedReader reader, long[] lineNumber) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                lineNumber[0]++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка импорта, передаваемая на сервер: номер строки исходного файла и либо данные вещи, либо ошибка проверки.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportRowDto {
+    private Long line;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private String error;
+}
@@ -3,15 +3,20 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.io.OutputStream;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @Autowired
     public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
@@ -27,6 +32,26 @@ public class UserClient extends BaseClient {
         return get("");
     }
 
+    public ResponseEntity<Object> getUsersDto(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getUsersPage(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public void exportUsers(OutputStream target) {
+        getStream("/export", NDJSON, target);
+    }
+
     public ResponseEntity<Object> getUserDto(long userId) {
         return get("/" + userId);
     }
@@ -35,6 +60,10 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
+    public ResponseEntity<Object> checkEmails(EmailCheckRequestDto request) {
+        return post("/emails/check", request);
+    }
+
     public ResponseEntity<Object> updateUserDto(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.validator.PageValidator;
 
 import javax.validation.Valid;
 
@@ -15,12 +17,44 @@ import javax.validation.Valid;
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
     private final UserClient userClient;
+    private final PageValidator validator;
 
+    /**
+     * Без параметров возвращает всех пользователей, как до появления пагинации. Для больших выгрузок
+     * предназначен {@code /users/export}.
+     */
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        log.info("Получение всех пользователей");
-        return userClient.getUsersDto();
+    public ResponseEntity<Object> getUsers(@RequestParam(required = false) Integer from,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String cursor) {
+        if (from == null && size == null && cursor == null) {
+            log.info("Получение всех пользователей");
+            return userClient.getUsersDto();
+        }
+        from = from == null ? 0 : from;
+        size = size == null ? DEFAULT_PAGE_SIZE : size;
+        validator.checkingCursorPageSize(size);
+        if (cursor != null) {
+            log.info("Получение страницы пользователей после курсора '{}'", cursor);
+            return userClient.getUsersPage(cursor, size);
+        }
+        validator.checkingPageableParams(from, size);
+        log.info("Получение пользователей начиная с {}", from);
+        return userClient.getUsersDto(from, size);
+    }
+
+    /**
+     * Выгрузка всех пользователей в NDJSON: ответ сервера передаётся клиенту по мере получения.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("Выгрузка всех пользователей");
+        StreamingResponseBody body = userClient::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(UserClient.NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{userId}")
@@ -35,6 +69,15 @@ public class UserController {
         return userClient.createUserDto(userDto);
     }
 
+    /**
+     * Проверка занятости адресов для формы регистрации, не больше 1000 адресов за запрос.
+     */
+    @PostMapping("/emails/check")
+    public ResponseEntity<Object> checkEmails(@Valid @RequestBody EmailCheckRequestDto request) {
+        log.info("Проверка занятости {} адресов", request.getEmails().size());
+        return userClient.checkEmails(request);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
         log.debug("Обновление данных пользователя под номером: {}", userId);
@@ -2,16 +2,22 @@ package ru.practicum.shareit.validator;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingApprovalDto;
 import ru.practicum.shareit.booking.BookingDto;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class BookingValidator {
+    private static final int MAX_APPROVALS_IN_BATCH = 100;
+
     public void validateBookingState(String state) {
         String result = checkingBookingState(state);
         if (result.isEmpty()) {
@@ -29,6 +35,29 @@ public class BookingValidator {
         }
     }
 
+    public void validateBookingApprovals(List<BookingApprovalDto> approvals) {
+        if (approvals == null || approvals.isEmpty()) {
+            throw new DataValidationException("Список решений по бронированиям не может быть пустым!");
+        }
+        if (approvals.size() > MAX_APPROVALS_IN_BATCH) {
+            throw new DataValidationException("За один запрос можно обработать не больше " + MAX_APPROVALS_IN_BATCH +
+                    " бронирований!");
+        }
+        Set<Long> bookingIds = new HashSet<>();
+        for (BookingApprovalDto approval : approvals) {
+            if (approval == null || approval.getBookingId() == null || approval.getApproved() == null) {
+                throw new DataValidationException("Невозможно использовать пустые поля!");
+            }
+            if (approval.getBookingId() < 1) {
+                throw new DataValidationException("Номер бронирования должен быть больше нуля!");
+            }
+            if (!bookingIds.add(approval.getBookingId())) {
+                throw new DataValidationException("Повторное решение по бронированию под номером: " +
+                        approval.getBookingId());
+            }
+        }
+    }
+
     public String checkingBookingState(String state) {
         try {
             State.valueOf(state);
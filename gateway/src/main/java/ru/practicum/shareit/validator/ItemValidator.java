@@ -5,9 +5,14 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.item.ItemDto;
 
+import java.time.LocalDateTime;
+
 @Component
 @RequiredArgsConstructor
 public class ItemValidator {
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_COMMENTS_PAGE = 100;
+
     public void validateItemData(ItemDto itemDto) {
         if (itemDto.getAvailable() == null || itemDto.getDescription() == null || itemDto.getName() == null) {
             throw new DataValidationException("Невозможно использовать пустые поля!");
@@ -22,4 +27,36 @@ public class ItemValidator {
             throw new DataValidationException("Невозможно использовать пустые поля!");
         }
     }
+
+    public void validateSearchPeriod(LocalDateTime start, LocalDateTime end, Boolean fuzzy) {
+        if (start == null && end == null) {
+            return;
+        }
+        if (start == null || end == null) {
+            throw new DataValidationException("Для поиска свободных вещей нужны обе даты периода!");
+        }
+        validatePeriod(start, end);
+        if (fuzzy) {
+            throw new DataValidationException("Поиск с опечатками не поддерживает фильтр по датам!");
+        }
+    }
+
+    public void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new DataValidationException("Дата начала периода должна быть раньше даты окончания!");
+        }
+    }
+
+    public void validateCommentsLimit(Integer limit) {
+        if (limit < 1 || limit > MAX_COMMENTS_PAGE) {
+            throw new DataValidationException("Количество комментариев на странице должно быть от 1 до " +
+                    MAX_COMMENTS_PAGE);
+        }
+    }
+
+    public void validateSuggestionParams(Integer size) {
+        if (size < 1 || size > MAX_SUGGESTIONS) {
+            throw new DataValidationException("Количество подсказок должно быть от 1 до " + MAX_SUGGESTIONS);
+        }
+    }
 }
@@ -5,7 +5,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.validator.PageValidatorService;
 
@@ -38,6 +41,14 @@ public class BookingController {
         return service.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader(USER_ID) Long userId,
+                                                          @RequestBody List<BookingApprovalDto> approvals) {
+        log.info("Получен PATCH-запрос к эндпоинту: '/bookings/owner/batch' на обновление статусов {} бронирований " +
+                "владельцем с ID={}", approvals.size(), userId);
+        return service.approveBookings(userId, approvals);
+    }
+
     @GetMapping
     public List<BookingDto> getAllBookingsForUser(@RequestParam(name = "state", defaultValue = "ALL") String state,
                                                   @RequestHeader(USER_ID) Long userId,
@@ -62,6 +73,28 @@ public class BookingController {
         return service.getAllBookingsByOwnerId(userId, state, page);
     }
 
+    @GetMapping(params = "cursor")
+    public BookingPageDto getBookingsPageForUser(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                 @RequestHeader(USER_ID) Long userId,
+                                                 @RequestParam String cursor,
+                                                 @RequestParam(defaultValue = "10") Integer size) {
+        validator.checkingCursorPageSize(size);
+        log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение страницы бронирований " +
+                "пользователя с ID={} с параметром STATE={} после курсора '{}'", userId, state, cursor);
+        return service.getBookingsPageByUserId(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public BookingPageDto getBookingsPageForOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestHeader(USER_ID) Long userId,
+                                                  @RequestParam String cursor,
+                                                  @RequestParam(defaultValue = "10") Integer size) {
+        validator.checkingCursorPageSize(size);
+        log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение страницы бронирований " +
+                "вещей пользователя с ID={} с параметром STATE={} после курсора '{}'", userId, state, cursor);
+        return service.getBookingsPageByOwnerId(userId, state, cursor, size);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getInfoForBooking(@PathVariable Long bookingId,
                                         @RequestHeader(USER_ID) Long userId) {
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.CursorCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция в списке бронирований, отсортированном по (start, id) по убыванию.
+ * Клиенту передаётся в виде непрозрачной строки, пустая строка означает первую страницу.
+ */
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private LocalDateTime start;
+    private Long id;
+
+    public static BookingCursor first() {
+        return new BookingCursor(FIRST_PAGE_START, Long.MAX_VALUE);
+    }
+
+    public static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        return CursorCodec.decode(token, 2, BookingCursor::first,
+                parts -> new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1])));
+    }
+
+    public String encode() {
+        return CursorCodec.encode(start, id);
+    }
+}
@@ -8,6 +8,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
         BookingDto bookingDto = BookingDto.builder()
@@ -78,4 +81,16 @@ public class BookingMapper {
         }
         return bookingLiteDto;
     }
+
+    public static BookingPageDto toBookingPageDto(List<Booking> bookings, int size) {
+        String next = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            next = BookingCursor.after(bookings.get(size - 1)).encode();
+        }
+        return BookingPageDto.builder()
+                .bookings(bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList()))
+                .next(next)
+                .build();
+    }
 }
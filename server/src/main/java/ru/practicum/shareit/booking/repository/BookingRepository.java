@@ -1,79 +1,246 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findAllByBooker_Id(Long bookerId, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findAllByItem_Owner_Id(Long ownerId);
 
+    boolean existsByBooker_IdAndItem_IdAndEndBefore(Long bookerId, Long itemId, LocalDateTime now);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
-             "FROM Booking b " +
-             "WHERE b.item.id = :itemId AND b.booker.id = :bookerId AND b.end <= :now")
-     List<Booking> findAllByUserIdAndItemIdAndEndDateIsPassed(Long bookerId, Long itemId, LocalDateTime now);
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status NOT IN :excluded AND b.start = " +
+            "(SELECT MAX(lb.start) FROM Booking lb " +
+            "WHERE lb.item.id = b.item.id AND lb.status NOT IN :excluded AND lb.start < :now)")
+    List<Booking> findLastBookingsByItemIds(List<Long> itemIds, List<BookingStatus> excluded, LocalDateTime now);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds")
-    List<Booking> findAllByOwnerItems(List<Long> itemsIds, Pageable page);
+            "WHERE b.item.id IN :itemIds AND b.status NOT IN :excluded AND b.start = " +
+            "(SELECT MIN(nb.start) FROM Booking nb " +
+            "WHERE nb.item.id = b.item.id AND nb.status NOT IN :excluded AND nb.start > :now)")
+    List<Booking> findNextBookingsByItemIds(List<Long> itemIds, List<BookingStatus> excluded, LocalDateTime now);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds AND b.status = :waiting")
-    List<Booking> findAllByOwnerItemsAndWaitingStatus(List<Long> itemsIds, BookingStatus waiting, Pageable page);
+            "WHERE b.item.id = :itemId AND b.status NOT IN :excluded AND (b.start = " +
+            "(SELECT MAX(lb.start) FROM Booking lb " +
+            "WHERE lb.item.id = :itemId AND lb.status NOT IN :excluded AND lb.start < :now) OR b.start = " +
+            "(SELECT MIN(nb.start) FROM Booking nb " +
+            "WHERE nb.item.id = :itemId AND nb.status NOT IN :excluded AND nb.start > :now))")
+    List<Booking> findLastAndNextByItemId(Long itemId, List<BookingStatus> excluded, LocalDateTime now);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId")
+    List<Booking> findAllByOwnerId(Long ownerId, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds AND b.status IN :rejected")
-    List<Booking> findAllByOwnerItemsAndRejectedStatus(List<Long> itemsIds, List<BookingStatus> rejected,
-                                                       Pageable page);
+            "WHERE b.item.owner.id = :ownerId AND b.status = :waiting")
+    List<Booking> findAllByOwnerIdAndWaitingStatus(Long ownerId, BookingStatus waiting, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds AND b.start < :now AND b.end > :now")
-    List<Booking> findAllByOwnerItemsAndCurrentStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
+            "WHERE b.item.owner.id = :ownerId AND b.status IN :rejected")
+    List<Booking> findAllByOwnerIdAndRejectedStatus(Long ownerId, List<BookingStatus> rejected, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds AND b.start > :now")
-    List<Booking> findAllByOwnerItemsAndFutureStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
+            "WHERE b.item.owner.id = :ownerId AND b.start < :now AND b.end > :now")
+    List<Booking> findAllByOwnerIdAndCurrentStatus(Long ownerId, LocalDateTime now, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemsIds AND b.end < :now")
-    List<Booking> findAllByOwnerItemsAndPastStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
+            "WHERE b.item.owner.id = :ownerId AND b.start > :now")
+    List<Booking> findAllByOwnerIdAndFutureStatus(Long ownerId, LocalDateTime now, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.end < :now")
+    List<Booking> findAllByOwnerIdAndPastStatus(Long ownerId, LocalDateTime now, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND b.status = :waiting")
     List<Booking> findAllByBookerIdAndWaitingStatus(Long bookerId, BookingStatus waiting, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND b.status IN :rejected")
     List<Booking> findAllByBookerIdAndRejectedStatus(Long bookerId, List<BookingStatus> rejected, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND b.start < :now AND b.end > :now ")
     List<Booking> findAllByBookerIdAndCurrentStatus(Long bookerId, LocalDateTime now, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND b.start > :now ")
     List<Booking> findAllByBookerIdAndFutureStatus(Long bookerId, LocalDateTime now, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b " +
             "FROM Booking b " +
             "WHERE b.booker.id = :bookerId AND b.end < :now")
     List<Booking> findAllByBookerIdAndPastStatus(Long bookerId, LocalDateTime now, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdKeyset(Long bookerId, LocalDateTime start, Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.status = :waiting " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdAndWaitingStatusKeyset(Long bookerId, BookingStatus waiting, LocalDateTime start,
+                                                          Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.status IN :rejected " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdAndRejectedStatusKeyset(Long bookerId, List<BookingStatus> rejected,
+                                                           LocalDateTime start, Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.start < :now AND b.end > :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdAndCurrentStatusKeyset(Long bookerId, LocalDateTime now, LocalDateTime start,
+                                                          Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.start > :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdAndFutureStatusKeyset(Long bookerId, LocalDateTime now, LocalDateTime start,
+                                                         Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.end < :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByBookerIdAndPastStatusKeyset(Long bookerId, LocalDateTime now, LocalDateTime start,
+                                                       Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdKeyset(Long ownerId, LocalDateTime start, Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.status = :waiting " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdAndWaitingStatusKeyset(Long ownerId, BookingStatus waiting, LocalDateTime start,
+                                                         Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.status IN :rejected " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdAndRejectedStatusKeyset(Long ownerId, List<BookingStatus> rejected,
+                                                          LocalDateTime start, Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.start < :now AND b.end > :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdAndCurrentStatusKeyset(Long ownerId, LocalDateTime now, LocalDateTime start,
+                                                         Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.start > :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdAndFutureStatusKeyset(Long ownerId, LocalDateTime now, LocalDateTime start,
+                                                        Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId AND b.end < :now " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id))")
+    List<Booking> findAllByOwnerIdAndPastStatusKeyset(Long ownerId, LocalDateTime now, LocalDateTime start,
+                                                      Long id, Pageable page);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end " +
+            "FROM Booking b " +
+            "WHERE b.status = :status AND b.end > :now")
+    List<BookingInterval> findIntervalsByStatusAndEndAfter(BookingStatus status, LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.start")
+    List<BookingInterval> findIntervalsByItemIdBetween(Long itemId, Collection<BookingStatus> statuses,
+                                                       LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH i.owner " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(List<Long> ids);
+
+    /**
+     * Переводит бронирования из статуса {@code expected}, прочитанного перед решением, в {@code status}.
+     * Бронирования, статус которых успели изменить другим запросом, не обновляются.
+     */
+    @Modifying
+    @Query("UPDATE Booking b " +
+            "SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = :expected")
+    int updateStatusByIdIn(List<Long> ids, BookingStatus expected, BookingStatus status);
 }
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Дерево интервалов бронирований одной вещи: AVL-дерево по (start, id), где каждый узел хранит максимальный
+ * конец интервала в своём поддереве. Интервалы полуоткрытые: [start, end).
+ * Класс не потокобезопасен, синхронизация на стороне вызывающего кода.
+ */
+public class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    public void insert(long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end));
+    }
+
+    public void remove(long bookingId, LocalDateTime start) {
+        root = remove(root, bookingId, start);
+    }
+
+    /**
+     * Удаляет интервалы, закончившиеся не позже указанного момента, и возвращает их количество.
+     */
+    public int removeEndedBy(LocalDateTime moment) {
+        List<Node> ended = new ArrayList<>();
+        collectEndedBy(root, moment, ended);
+        for (Node node : ended) {
+            remove(node.id, node.start);
+        }
+        return ended.size();
+    }
+
+    public boolean contains(long bookingId, LocalDateTime start) {
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(start, bookingId, node.start, node.id);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        Node node = root;
+        while (node != null && !node.overlaps(from, to)) {
+            if (node.left != null && node.left.maxEnd.isAfter(from)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return node != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            size++;
+            return inserted;
+        }
+        int cmp = inserted.compareTo(node);
+        if (cmp < 0) {
+            node.left = insert(node.left, inserted);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, inserted);
+        } else {
+            node.end = inserted.end;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node.start, node.id);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.right = node.right;
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private void collectEndedBy(Node node, LocalDateTime moment, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+        collectEndedBy(node.left, moment, ended);
+        if (!node.end.isAfter(moment)) {
+            ended.add(node);
+        }
+        collectEndedBy(node.right, moment, ended);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(LocalDateTime start, long id, LocalDateTime otherStart, long otherId) {
+        int cmp = start.compareTo(otherStart);
+        return cmp != 0 ? cmp : Long.compare(id, otherId);
+    }
+
+    private static class Node implements Comparable<Node> {
+        private final long id;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return start.isBefore(to) && end.isAfter(from);
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            return compare(start, id, other.start, other.id);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 
 import java.util.List;
 
@@ -10,9 +13,15 @@ public interface BookingService {
 
     BookingDto approveBooking(Long bookingId, Long ownerId, String approve);
 
+    List<BookingApprovalResultDto> approveBookings(Long ownerId, List<BookingApprovalDto> approvals);
+
     BookingDto getBookingInfo(Long bookingId, Long userId);
 
     List<BookingDto> getAllBookingsByUserId(Long userId, String state, Pageable page);
 
     List<BookingDto> getAllBookingsByOwnerId(Long ownerId, String state, Pageable page);
+
+    BookingPageDto getBookingsPageByUserId(Long userId, String state, String cursor, Integer size);
+
+    BookingPageDto getBookingsPageByOwnerId(Long ownerId, String state, String cursor, Integer size);
 }
@@ -1,20 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemAvailabilityIndex.Reservation;
+import ru.practicum.shareit.exception.DataConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCalendarCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -23,9 +31,8 @@ import ru.practicum.shareit.validator.ItemValidatorService;
 import ru.practicum.shareit.validator.UserValidatorService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -33,11 +40,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
-    private final ItemRepository itemRepository;
+    private static final Sort SORT_BY_START_AND_ID_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
     private final BookingRepository bookingRepository;
     private final UserValidatorService userValidator;
     private final ItemValidatorService itemValidator;
     private final BookingValidatorService bookingValidator;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ItemCalendarCache calendarCache;
+    private final ItemRepository itemRepository;
 
     @Transactional
     @Override
@@ -56,10 +66,14 @@ public class BookingServiceImpl implements BookingService {
         if (checkingTheCreationTime(bookingDto)) {
             throw new DataValidationException("Неверно введены даты!");
         }
+        if (!availabilityIndex.isFree(itemFromDb.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new DataValidationException("Вещь уже забронирована на эти даты!");
+        }
         bookingDto.setStatus(BookingStatus.WAITING);
         User newUser = UserMapper.toUser(userFromDb);
         Booking newBooking = bookingRepository.save(BookingMapper.toBookingDb(bookingDto, itemFromDb,
                 newUser));
+        calendarCache.invalidate(itemFromDb.getId());
         return BookingMapper.toBookingDto(newBooking);
     }
 
@@ -68,25 +82,125 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto approveBooking(Long bookingId, Long ownerId, String approve) {
         userValidator.checkingUserId(ownerId);
         Booking bookingFromDb = bookingValidator.validateBooking(bookingId);
-        BookingDto bookingDto = BookingMapper.toBookingDto(bookingFromDb);
 
-        if (!Objects.equals(bookingDto.getItem().getOwner().getId(), ownerId)) {
+        if (!Objects.equals(bookingFromDb.getItem().getOwner().getId(), ownerId)) {
             throw new DataNotFoundException("Пользователь под номером: " + ownerId + " не является владельцем!");
         }
 
+        boolean wasApproved = bookingFromDb.getStatus().equals(BookingStatus.APPROVED);
         if (approve.equalsIgnoreCase("true")) {
-            if (bookingDto.getStatus().equals(BookingStatus.APPROVED)) {
+            if (wasApproved) {
                 throw new DataValidationException("Статус APPROVED");
             }
-            bookingDto.setStatus(BookingStatus.APPROVED);
+            Reservation reservation = availabilityIndex.reserve(bookingFromDb.getItem().getId(), bookingId,
+                    bookingFromDb.getStart(), bookingFromDb.getEnd());
+            if (reservation == Reservation.ALREADY_RESERVED) {
+                throw new DataConflictException("Бронирование под номером: " + bookingId +
+                        " уже изменено другим запросом");
+            }
+            if (reservation == Reservation.BUSY) {
+                throw new DataValidationException("Вещь уже забронирована на эти даты!");
+            }
+            bookingFromDb.setStatus(BookingStatus.APPROVED);
         } else if (approve.equalsIgnoreCase("false")) {
-            bookingDto.setStatus(BookingStatus.REJECTED);
+            if (wasApproved) {
+                availabilityIndex.release(bookingFromDb.getItem().getId(), bookingId, bookingFromDb.getStart(),
+                        bookingFromDb.getEnd());
+            }
+            bookingFromDb.setStatus(BookingStatus.REJECTED);
         } else {
             throw new DataValidationException("Некорректный метод");
         }
-        Booking bookingToUpdate = BookingMapper.toBookingUpdate(bookingDto, bookingFromDb);
-        bookingRepository.save(bookingToUpdate);
-        return BookingMapper.toBookingDto(bookingToUpdate);
+        try {
+            bookingRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new DataConflictException("Бронирование под номером: " + bookingId +
+                    " уже изменено другим запросом");
+        }
+        boolean approved = bookingFromDb.getStatus().equals(BookingStatus.APPROVED);
+        if (approved != wasApproved) {
+            itemRepository.addToBookingsCount(bookingFromDb.getItem().getId(), approved ? 1 : -1);
+        }
+        calendarCache.invalidate(bookingFromDb.getItem().getId());
+        return BookingMapper.toBookingDto(bookingFromDb);
+    }
+
+    @Transactional
+    @Override
+    public List<BookingApprovalResultDto> approveBookings(Long ownerId, List<BookingApprovalDto> approvals) {
+        userValidator.checkingUserId(ownerId);
+        List<Long> bookingIds = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingApprovalResultDto> results = new ArrayList<>();
+        Map<BookingStatus, List<Long>> approvedIdsByStatus = new EnumMap<>(BookingStatus.class);
+        Map<BookingStatus, List<Long>> rejectedIdsByStatus = new EnumMap<>(BookingStatus.class);
+        Set<Long> processedIds = new HashSet<>();
+        Set<Long> changedItemIds = new HashSet<>();
+        Map<Long, Long> bookingsCountDeltas = new HashMap<>();
+        for (BookingApprovalDto approval : approvals) {
+            Long bookingId = approval.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = null;
+            BookingStatus status = null;
+            boolean changed = true;
+            if (!processedIds.add(bookingId)) {
+                error = "Повторное решение по бронированию под номером: " + bookingId;
+            } else if (booking == null) {
+                error = "Бронирования под номером: " + bookingId + " не существует!";
+            } else if (!Objects.equals(booking.getItem().getOwner().getId(), ownerId)) {
+                error = "Пользователь под номером: " + ownerId + " не является владельцем!";
+            } else if (Boolean.TRUE.equals(approval.getApproved())) {
+                if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+                    error = "Статус APPROVED";
+                } else {
+                    Reservation reservation = availabilityIndex.reserve(booking.getItem().getId(), bookingId,
+                            booking.getStart(), booking.getEnd());
+                    if (reservation == Reservation.ALREADY_RESERVED) {
+                        error = "Бронирование под номером: " + bookingId + " уже изменено другим запросом";
+                    } else if (reservation == Reservation.BUSY) {
+                        error = "Вещь уже забронирована на эти даты!";
+                    } else {
+                        status = BookingStatus.APPROVED;
+                        approvedIdsByStatus.computeIfAbsent(booking.getStatus(), s -> new ArrayList<>())
+                                .add(bookingId);
+                        bookingsCountDeltas.merge(booking.getItem().getId(), 1L, Long::sum);
+                    }
+                }
+            } else if (booking.getStatus().equals(BookingStatus.REJECTED)) {
+                // повторный отказ, как и в approveBooking, не ошибка, но и не изменение
+                status = BookingStatus.REJECTED;
+                changed = false;
+            } else {
+                if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+                    availabilityIndex.release(booking.getItem().getId(), bookingId, booking.getStart(),
+                            booking.getEnd());
+                    bookingsCountDeltas.merge(booking.getItem().getId(), -1L, Long::sum);
+                }
+                status = BookingStatus.REJECTED;
+                rejectedIdsByStatus.computeIfAbsent(booking.getStatus(), s -> new ArrayList<>()).add(bookingId);
+            }
+            if (status != null && changed) {
+                changedItemIds.add(booking.getItem().getId());
+            }
+            results.add(BookingApprovalResultDto.builder()
+                    .bookingId(bookingId)
+                    .status(status)
+                    .error(error)
+                    .build());
+        }
+        approvedIdsByStatus.forEach((expected, ids) -> updateStatuses(ids, expected, BookingStatus.APPROVED));
+        rejectedIdsByStatus.forEach((expected, ids) -> updateStatuses(ids, expected, BookingStatus.REJECTED));
+        bookingsCountDeltas.forEach((itemId, delta) -> {
+            if (delta != 0) {
+                itemRepository.addToBookingsCount(itemId, delta);
+            }
+        });
+        changedItemIds.forEach(calendarCache::invalidate);
+        return results;
     }
 
     @Transactional(readOnly = true)
@@ -150,42 +264,35 @@ public class BookingServiceImpl implements BookingService {
         userValidator.checkingUserId(ownerId);
         bookingValidator.checkingBookingState(state);
         Pageable allBookingsForOwner = PageRequest.of(page.getPageNumber(), page.getPageSize(), SORT_BY_START_DESC);
-        List<Long> userItemsIds = itemRepository.findByOwner_Id_WithoutPageable(ownerId)
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        if (userItemsIds.isEmpty()) {
-            throw new DataValidationException("У данного пользователя нет предметов!");
-        }
         List<Booking> bookings;
         switch (state.toUpperCase()) {
             case "WAITING": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndWaitingStatus(userItemsIds,
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdAndWaitingStatus(ownerId,
                         BookingStatus.WAITING, allBookingsForOwner));
                 break;
             }
             case "REJECTED": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndRejectedStatus(userItemsIds,
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdAndRejectedStatus(ownerId,
                         List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), allBookingsForOwner));
                 break;
             }
             case "CURRENT": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndCurrentStatus(userItemsIds,
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdAndCurrentStatus(ownerId,
                         LocalDateTime.now(), allBookingsForOwner));
                 break;
             }
             case "FUTURE": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndFutureStatus(userItemsIds,
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdAndFutureStatus(ownerId,
                         LocalDateTime.now(), allBookingsForOwner));
                 break;
             }
             case "PAST": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndPastStatus(userItemsIds,
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdAndPastStatus(ownerId,
                         LocalDateTime.now(), allBookingsForOwner));
                 break;
             }
             case "ALL": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItems(userItemsIds, allBookingsForOwner));
+                bookings = new ArrayList<>(bookingRepository.findAllByOwnerId(ownerId, allBookingsForOwner));
                 break;
             }
             default:
@@ -194,6 +301,98 @@ public class BookingServiceImpl implements BookingService {
         return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPageDto getBookingsPageByUserId(Long userId, String state, String cursor, Integer size) {
+        userValidator.checkingUserId(userId);
+        bookingValidator.checkingBookingState(state);
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable keysetPage = PageRequest.of(0, size + 1, SORT_BY_START_AND_ID_DESC);
+        List<Booking> bookings;
+        switch (state.toUpperCase()) {
+            case "WAITING": {
+                bookings = bookingRepository.findAllByBookerIdAndWaitingStatusKeyset(userId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "REJECTED": {
+                bookings = bookingRepository.findAllByBookerIdAndRejectedStatusKeyset(userId,
+                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), after.getStart(), after.getId(),
+                        keysetPage);
+                break;
+            }
+            case "CURRENT": {
+                bookings = bookingRepository.findAllByBookerIdAndCurrentStatusKeyset(userId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "FUTURE": {
+                bookings = bookingRepository.findAllByBookerIdAndFutureStatusKeyset(userId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "PAST": {
+                bookings = bookingRepository.findAllByBookerIdAndPastStatusKeyset(userId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "ALL": {
+                bookings = bookingRepository.findAllByBookerIdKeyset(userId, after.getStart(), after.getId(),
+                        keysetPage);
+                break;
+            }
+            default:
+                bookings = new ArrayList<>();
+        }
+        return BookingMapper.toBookingPageDto(bookings, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPageDto getBookingsPageByOwnerId(Long ownerId, String state, String cursor, Integer size) {
+        userValidator.checkingUserId(ownerId);
+        bookingValidator.checkingBookingState(state);
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable keysetPage = PageRequest.of(0, size + 1, SORT_BY_START_AND_ID_DESC);
+        List<Booking> bookings;
+        switch (state.toUpperCase()) {
+            case "WAITING": {
+                bookings = bookingRepository.findAllByOwnerIdAndWaitingStatusKeyset(ownerId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "REJECTED": {
+                bookings = bookingRepository.findAllByOwnerIdAndRejectedStatusKeyset(ownerId,
+                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), after.getStart(), after.getId(),
+                        keysetPage);
+                break;
+            }
+            case "CURRENT": {
+                bookings = bookingRepository.findAllByOwnerIdAndCurrentStatusKeyset(ownerId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "FUTURE": {
+                bookings = bookingRepository.findAllByOwnerIdAndFutureStatusKeyset(ownerId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "PAST": {
+                bookings = bookingRepository.findAllByOwnerIdAndPastStatusKeyset(ownerId, LocalDateTime.now(),
+                        after.getStart(), after.getId(), keysetPage);
+                break;
+            }
+            case "ALL": {
+                bookings = bookingRepository.findAllByOwnerIdKeyset(ownerId, after.getStart(), after.getId(),
+                        keysetPage);
+                break;
+            }
+            default:
+                bookings = new ArrayList<>();
+        }
+        return BookingMapper.toBookingPageDto(bookings, size);
+    }
+
     private boolean checkingTheCreationTime(BookingDto bookingDto) {
         boolean endIsBeforeStart = bookingDto.getEnd().isBefore(bookingDto.getStart());
         boolean startIsEqualEnd = bookingDto.getStart().isEqual(bookingDto.getEnd());
@@ -201,4 +400,14 @@ public class BookingServiceImpl implements BookingService {
         boolean startIsBeforeNow = bookingDto.getStart().isBefore(LocalDateTime.now());
         return endIsBeforeStart || startIsEqualEnd || endIsBeforeNow || startIsBeforeNow;
     }
+
+    /**
+     * Обновление выполняется только для бронирований, всё ещё находящихся в прочитанном статусе
+     * {@code expected}; если хотя бы одно изменили между чтением и записью, вся пачка откатывается.
+     */
+    private void updateStatuses(List<Long> bookingIds, BookingStatus expected, BookingStatus status) {
+        if (bookingRepository.updateStatusByIdIn(bookingIds, expected, status) != bookingIds.size()) {
+            throw new DataConflictException("Часть бронирований уже изменена другим запросом");
+        }
+    }
 }
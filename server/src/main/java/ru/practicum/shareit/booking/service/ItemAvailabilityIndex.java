@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс подтверждённых бронирований по вещам. Хранит только бронирования, которые ещё не закончились:
+ * новые бронирования всегда начинаются в будущем, поэтому прошедшие интервалы пересечься с ними не могут.
+ * Закончившиеся интервалы отбрасываются при построении и периодически в {@link #evictEnded()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervalTree> trees = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusAndEndAfter(BookingStatus.APPROVED,
+                LocalDateTime.now());
+        trees.clear();
+        for (BookingInterval interval : intervals) {
+            BookingIntervalTree tree = trees.computeIfAbsent(interval.getItemId(), id -> new BookingIntervalTree());
+            synchronized (tree) {
+                tree.insert(interval.getId(), interval.getStart(), interval.getEnd());
+            }
+        }
+        log.info("Индекс занятости вещей построен: {} бронирований", intervals.size());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.bookings.availability.eviction-interval:PT1H}",
+            fixedDelayString = "${shareit.bookings.availability.eviction-interval:PT1H}")
+    public int evictEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        for (BookingIntervalTree tree : trees.values()) {
+            synchronized (tree) {
+                evicted += tree.removeEndedBy(now);
+            }
+        }
+        log.debug("Из индекса занятости вещей удалено закончившихся бронирований: {}", evicted);
+        return evicted;
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return true;
+        }
+        synchronized (tree) {
+            return !tree.overlaps(start, end);
+        }
+    }
+
+    /**
+     * Атомарно проверяет, что интервал свободен, и занимает его. При откате текущей транзакции бронь снимается.
+     * Если интервал уже занят этим же бронированием, его одновременно подтверждает другой запрос.
+     */
+    public Reservation reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+        synchronized (tree) {
+            if (tree.contains(bookingId, start)) {
+                return Reservation.ALREADY_RESERVED;
+            }
+            if (tree.overlaps(start, end)) {
+                return Reservation.BUSY;
+            }
+            tree.insert(bookingId, start, end);
+        }
+        onRollback(() -> remove(itemId, bookingId, start));
+        return Reservation.RESERVED;
+    }
+
+    public void release(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(itemId, bookingId, start);
+        onRollback(() -> {
+            BookingIntervalTree tree = trees.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+            synchronized (tree) {
+                tree.insert(bookingId, start, end);
+            }
+        });
+    }
+
+    private void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(bookingId, start);
+            }
+        }
+    }
+
+    private void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    public enum Reservation {
+        RESERVED,
+        BUSY,
+        ALREADY_RESERVED
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class DataConflictException extends RuntimeException {
+    public DataConflictException(String message) {
+        super(message);
+    }
+}
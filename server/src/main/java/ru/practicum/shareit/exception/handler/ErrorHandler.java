@@ -44,4 +44,10 @@ public class ErrorHandler {
     public ErrorResponse handleEmailIsAlreadyRegisteredException(final EmailIsAlreadyRegisteredException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleDataConflictException(final DataConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
 }
@@ -4,15 +4,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validator.PageValidatorService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * TODO Sprint add-controllers.
@@ -23,6 +32,7 @@ import java.util.Collection;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
     private final PageValidatorService validator;
     private static final String OWNER = "X-Sharer-User-Id";
 
@@ -32,12 +42,40 @@ public class ItemController {
         return itemService.createItemDto(itemDto, ownerId);
     }
 
+    /**
+     * Импорт вещей из NDJSON: каждая строка содержит одну вещь, ответ отправляется после чтения всего потока.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ItemImportResultDto importItems(@RequestHeader(OWNER) Long ownerId, InputStream rows) throws IOException {
+        log.info("Выполняется импорт вещей пользователя {}", ownerId);
+        return itemImporter.importItems(ownerId, rows);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable Long itemId, @RequestHeader(OWNER) Long ownerId) {
         log.info("Выполняется запрос на получение вещи под номером {}", itemId);
         return itemService.getItemDtoById(itemId, ownerId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable Long itemId,
+                                      @RequestParam(defaultValue = "") String after,
+                                      @RequestParam(defaultValue = "10") Integer limit) {
+        validator.checkingCursorPageSize(limit);
+        log.info("Выполняется запрос комментариев вещи под номером {} после курсора '{}'", itemId, after);
+        return itemService.getCommentsPage(itemId, after, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getFreeIntervals(@PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        log.info("Выполняется запрос свободных периодов вещи под номером {}", itemId);
+        return itemService.getFreeIntervals(itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemDto> getItemsByOwner(@RequestHeader(OWNER) Long ownerId,
                                                @RequestParam(defaultValue = "0") Integer from,
@@ -58,13 +96,34 @@ public class ItemController {
     @GetMapping("/search")
     public Collection<ItemDto> getItemsBySearchQuery(@RequestParam String text,
                                                      @RequestParam(defaultValue = "0") Integer from,
-                                                     @RequestParam(defaultValue = "10") Integer size) {
+                                                     @RequestParam(defaultValue = "10") Integer size,
+                                                     @RequestParam(defaultValue = "false") Boolean fuzzy,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime start,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime end) {
         validator.checkingPageableParams(from, size);
         log.info("Выполняется запрос поиска вещи по строке {}", text);
         Pageable page = PageRequest.of(from / size, size);
+        if (start != null || end != null) {
+            return itemService.getItemsDtoBySearchFreeBetween(text, start, end, page);
+        }
+        if (fuzzy) {
+            return itemService.getItemsDtoByFuzzySearch(text, page);
+        }
         return itemService.getItemsDtoBySearch(text, page);
     }
 
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> getSuggestions(@RequestParam String prefix,
+                                                  @RequestParam(defaultValue = "10") Integer size) {
+        validator.checkingCursorPageSize(size);
+        log.info("Выполняется запрос подсказок для строки {}", prefix);
+        return itemService.getSuggestions(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createCommentToItem(@PathVariable Long itemId, @RequestBody CommentDto comment,
                                           @RequestHeader(OWNER) Long userId) {
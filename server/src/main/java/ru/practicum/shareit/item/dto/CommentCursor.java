@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.pagination.CursorCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция в списке комментариев вещи, отсортированном по (created, id) по убыванию.
+ * Клиенту передаётся в виде непрозрачной строки, пустая строка означает первую страницу.
+ */
+@Data
+@AllArgsConstructor
+public class CommentCursor {
+    private static final LocalDateTime FIRST_PAGE_CREATED = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private LocalDateTime created;
+    private Long id;
+
+    public static CommentCursor first() {
+        return new CommentCursor(FIRST_PAGE_CREATED, Long.MAX_VALUE);
+    }
+
+    public static CommentCursor after(CommentDto comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public static CommentCursor decode(String token) {
+        return CursorCodec.decode(token, 2, CommentCursor::first,
+                parts -> new CommentCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1])));
+    }
+
+    public String encode() {
+        return CursorCodec.encode(created, id);
+    }
+}
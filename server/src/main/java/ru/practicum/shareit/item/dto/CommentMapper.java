@@ -12,7 +12,7 @@ import java.util.stream.Collectors;
 public class CommentMapper {
     public static Comment toComment(CommentDto commentDto, User author, Item item) {
         return Comment.builder()
-                .id(commentDto.getId() != null ? commentDto.getId() : 0L)
+                .id(commentDto.getId())
                 .author(author)
                 .item(item)
                 .text(commentDto.getText())
@@ -37,9 +37,34 @@ public class CommentMapper {
         return commentDto;
     }
 
+    /**
+     * Ответ на создание комментария: вещь и автор могут быть ссылками без загруженных полей, поэтому они
+     * не читаются, а имя автора передаётся отдельно.
+     */
+    public static CommentDto toNewCommentDto(Comment comment, String authorName) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .created(comment.getCreated())
+                .text(comment.getText())
+                .authorName(authorName)
+                .build();
+    }
+
     public static List<CommentDto> toCommentsDto(List<Comment> comments) {
         return comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
     }
+
+    public static CommentPageDto toCommentPageDto(List<Comment> comments, int size) {
+        String next = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            next = CommentCursor.after(toCommentDto(comments.get(size - 1))).encode();
+        }
+        return CommentPageDto.builder()
+                .comments(toCommentsDto(comments))
+                .next(next)
+                .build();
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница комментариев вещи: {@code next} содержит курсор следующей страницы или {@code null},
+ * если страница последняя.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentPageDto {
+    private List<CommentDto> comments;
+    private String next;
+}
@@ -34,5 +34,8 @@ public class ItemDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentDto> comments;
+    private String moreComments;
+    private Long commentsCount;
+    private Long bookingsCount;
     private Long requestId;
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка импорта вещей в формате NDJSON. Шлюз передаёт номер строки исходного файла и ошибку проверки,
+ * если строка её не прошла, чтобы сервер вернул единый отчёт по всем строкам.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportRowDto {
+    private Long line;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private String error;
+}
@@ -21,8 +21,10 @@ import javax.validation.constraints.NotBlank;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;                 // уникальный идентификатор вещи
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
+    private Long id;                 // уникальный идентификатор вещи; номера выдаются из последовательности
+                                     // пачками по 50, что позволяет Hibernate объединять вставки в пакеты
 
     @NotBlank
     @Column(name = "name")
@@ -42,4 +44,12 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;     // если вещь была создана по запросу другого пользователя, то в этом
                                      // поле хранится ссылка на соответствующий запрос
+
+    @Column(name = "comments_count", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long commentsCount;      // число отзывов, меняется только атомарными запросами ItemRepository
+
+    @Column(name = "bookings_count", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long bookingsCount;      // число подтверждённых бронирований, меняется так же
 }
@@ -6,14 +6,36 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem_Id(Long itemId);
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = :itemId " +
+            "AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllByItemIdKeyset(Long itemId, LocalDateTime created, Long id, Pageable page);
+
+    /**
+     * Номера не более чем {@code limit} последних комментариев каждой вещи из списка.
+     */
+    @Query(value = "SELECT ranked.id " +
+            "FROM (SELECT c.id AS id, " +
+            "  ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS comment_rank " +
+            "  FROM comments c " +
+            "  WHERE c.item_id IN (:itemIds)) ranked " +
+            "WHERE ranked.comment_rank <= :limit",
+            nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(Collection<Long> itemIds, int limit);
 
     @Query("SELECT c " +
             "FROM Comment c " +
-            "WHERE c.item.owner.id = :userId")
-    List<Comment> findAllByItemsUser_Id(Long userId, Pageable page);
+            "JOIN FETCH c.author " +
+            "WHERE c.id IN :ids " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllWithAuthorByIdIn(Collection<Long> ids);
 }
@@ -2,25 +2,89 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwner_Id(Long ownerId, Pageable page);
 
-    @Query("select i " +
-            "from Item i " +
-            "where i.owner.id = :ownerId")
-    List<Item> findByOwner_Id_WithoutPageable(Long ownerId);
+    /**
+     * Ответы на несколько запросов одним запросом; владелец и запрос вещи не загружаются, их номера берутся
+     * из внешних ключей.
+     */
+    List<Item> findAllByRequest_IdIn(Collection<Long> requestIds);
 
     @Query(" SELECT i " +
             "FROM Item i " +
-            "WHERE lower(i.name) LIKE lower(concat('%', ?1, '%')) " +
-            " OR lower(i.description) LIKE lower(concat('%', ?1, '%')) " +
-            " AND i.available = true")
+            "WHERE i.available = true " +
+            " AND (lower(i.name) LIKE lower(concat('%', ?1, '%')) " +
+            " OR lower(i.description) LIKE lower(concat('%', ?1, '%'))) " +
+            "ORDER BY i.id")
     List<Item> getItemsBySearchQuery(String text, Pageable page);
+
+    /**
+     * Поиск как в {@link #getItemsBySearchQuery}, из которого исключены вещи с бронированиями в переданных статусах,
+     * пересекающими период [start, end). Подзапрос идёт по индексу bookings (item_id, start_date, end_date).
+     */
+    @Query(" SELECT i " +
+            "FROM Item i " +
+            "WHERE i.available = true " +
+            " AND (lower(i.name) LIKE lower(concat('%', :text, '%')) " +
+            " OR lower(i.description) LIKE lower(concat('%', :text, '%'))) " +
+            " AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "  WHERE b.item = i AND b.status IN :statuses AND b.start < :end AND b.end > :start) " +
+            "ORDER BY i.id")
+    List<Item> getItemsBySearchQueryFreeBetween(String text, LocalDateTime start, LocalDateTime end,
+                                                Collection<BookingStatus> statuses, Pageable page);
+
+    @Query(value = "SELECT i.* " +
+            "FROM items i " +
+            "WHERE i.available = true " +
+            " AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            " OR lower(i.name) LIKE concat('%', lower(:text), '%') " +
+            " OR lower(i.description) LIKE concat('%', lower(:text), '%')) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> getItemsByFullTextSearch(String text, Pageable page);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description " +
+            "FROM Item i " +
+            "WHERE i.available = true AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<ItemSearchDocument> findAvailableSearchDocuments(Long afterId, Pageable page);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.commentsCount = i.commentsCount + 1 WHERE i.id = :itemId")
+    int incrementCommentsCount(Long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.bookingsCount = i.bookingsCount + :delta WHERE i.id = :itemId")
+    int addToBookingsCount(Long itemId, long delta);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(Long afterId, Pageable page);
+
+    /**
+     * Пересчитывает счётчики отзывов и бронирований в статусе {@code status} у переданных вещей, затрагивая
+     * только строки с расхождением. Каждый вызов выполняется в отдельной транзакции. Возвращает число исправленных вещей.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i " +
+            "SET i.commentsCount = (SELECT COUNT(c) FROM Comment c WHERE c.item.id = i.id), " +
+            " i.bookingsCount = (SELECT COUNT(b) FROM Booking b WHERE b.item.id = i.id AND b.status = :status) " +
+            "WHERE i.id IN :ids " +
+            " AND (i.commentsCount <> (SELECT COUNT(c) FROM Comment c WHERE c.item.id = i.id) " +
+            " OR i.bookingsCount <> (SELECT COUNT(b) FROM Booking b WHERE b.item.id = i.id AND b.status = :status))")
+    int reconcileCounters(Collection<Long> ids, BookingStatus status);
 }
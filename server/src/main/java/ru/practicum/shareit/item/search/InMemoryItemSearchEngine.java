@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по триграммному индексу в памяти процесса. Индекс заполняется при старте приложения и обновляется
+ * после фиксации транзакций, создающих или изменяющих вещи; найденные номера загружаются одним запросом.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final TrigramIndex index = new TrigramIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        long lastId = 0;
+        List<ItemSearchDocument> documents;
+        do {
+            documents = itemRepository.findAvailableSearchDocuments(lastId, batch);
+            for (ItemSearchDocument document : documents) {
+                index.put(document.getId(), document.getName(), document.getDescription());
+                lastId = document.getId();
+            }
+        } while (documents.size() == LOAD_BATCH_SIZE);
+        log.info("Поисковый индекс вещей построен: {} вещей", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        List<Long> ids = index.search(text, page.getOffset(), page.getPageSize());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void indexItem(Item item) {
+        long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable update = () -> {
+            if (available) {
+                index.put(itemId, name, description);
+            } else {
+                index.remove(itemId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
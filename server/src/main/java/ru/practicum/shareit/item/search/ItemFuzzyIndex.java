@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поиск с опечатками по словам из названий и описаний доступных вещей. Словарь хранится в префиксном дереве
+ * с поиском по расстоянию Левенштейна, для каждого слова известны номера вещей, в которых оно встречается.
+ * Индекс строится при старте приложения и обновляется после фиксации транзакций, создающих или изменяющих вещи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemFuzzyIndex {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LevenshteinTrie dictionary = new LevenshteinTrie();
+    private final Map<String, Set<Long>> itemIdsByToken = new HashMap<>();
+    private final Map<Long, List<String>> tokensByItemId = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        long lastId = 0;
+        List<ItemSearchDocument> documents;
+        do {
+            documents = itemRepository.findAvailableSearchDocuments(lastId, batch);
+            for (ItemSearchDocument document : documents) {
+                put(document.getId(), document.getName(), document.getDescription());
+                lastId = document.getId();
+            }
+        } while (documents.size() == LOAD_BATCH_SIZE);
+        log.info("Индекс поиска с опечатками построен: {} слов", dictionary.size());
+    }
+
+    /**
+     * Номера вещей, в которых для каждого слова запроса нашлось слово с допустимым числом опечаток.
+     * Сначала идут вещи с меньшим суммарным числом опечаток, при равенстве по возрастанию номера.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        List<String> queryTokens = TokenTrie.tokens(text);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> matches = new HashMap<>();
+                for (Map.Entry<String, Integer> token : dictionary.search(queryToken, maxDistance(queryToken))
+                        .entrySet()) {
+                    int distance = token.getValue();
+                    for (Long itemId : itemIdsByToken.get(token.getKey())) {
+                        if (scores == null || scores.containsKey(itemId)) {
+                            matches.merge(itemId, distance, Math::min);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    Map<Long, Integer> previous = scores;
+                    matches.replaceAll((itemId, distance) -> distance + previous.get(itemId));
+                }
+                scores = matches;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        List<Long> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (long i = offset; i < ranked.size() && result.size() < limit; i++) {
+            result.add(ranked.get((int) i).getKey());
+        }
+        return result;
+    }
+
+    public void indexItem(Item item) {
+        long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable update = () -> {
+            if (available) {
+                put(itemId, name, description);
+            } else {
+                remove(itemId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    public void put(long itemId, String name, String description) {
+        Set<String> tokens = new LinkedHashSet<>(TokenTrie.tokens(name));
+        tokens.addAll(TokenTrie.tokens(description));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+            for (String token : tokens) {
+                itemIdsByToken.computeIfAbsent(token, t -> {
+                    dictionary.add(t);
+                    return new HashSet<>();
+                }).add(itemId);
+            }
+            tokensByItemId.put(itemId, new ArrayList<>(tokens));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(long itemId) {
+        List<String> tokens = tokensByItemId.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> itemIds = itemIdsByToken.get(token);
+            itemIds.remove(itemId);
+            if (itemIds.isEmpty()) {
+                itemIdsByToken.remove(token);
+                dictionary.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Допустимое число опечаток: короткие слова ищутся точно, иначе одна опечатка, в длинных словах две.
+     */
+    private static int maxDistance(String token) {
+        if (token.length() < 3) {
+            return 0;
+        }
+        return token.length() < 6 ? 1 : 2;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш результатов поиска вещей по ключу (нормализованный текст, смещение, размер страницы).
+ * При создании или изменении вещи удаляются только записи, которые она могла затронуть: текст запроса
+ * входит подстрокой в название или описание вещи (поиск через LIKE) либо все слова запроса встречаются
+ * среди её слов (полнотекстовый поиск с конфигурацией 'simple', которая не приводит слова к основе).
+ * Поиск в памяти ({@code shareit.search.engine=memory}) так не разбирается, и для него кэш очищается целиком.
+ */
+@Component
+public class ItemSearchCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final Cache<Key, List<ItemDto>> cache;
+    private final boolean clearAllOnWrite;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl,
+                           @Value("${shareit.search.engine:jpa}") String engine,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.clearAllOnWrite = "memory".equals(engine);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    /**
+     * Загрузчик получает нормализованный текст, чтобы запросы с одним ключом давали одинаковый результат.
+     */
+    public List<ItemDto> get(String text, long offset, int size, Function<String, List<ItemDto>> loader) {
+        return cache.get(new Key(normalize(text), offset, size), key -> loader.apply(key.getText()));
+    }
+
+    /**
+     * Удаляет результаты запросов, на которые могла повлиять вещь с указанными текстами. Если вызов идёт внутри
+     * транзакции, удаление выполняется после её фиксации, чтобы параллельный запрос не закэшировал старые данные.
+     */
+    public void invalidate(String... texts) {
+        Runnable invalidation = clearAllOnWrite ? cache::invalidateAll : invalidationFor(texts);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private Runnable invalidationFor(String[] texts) {
+        String[] normalized = Arrays.stream(texts)
+                .filter(Objects::nonNull)
+                .map(ItemSearchCache::normalize)
+                .toArray(String[]::new);
+        Set<String> tokens = new HashSet<>();
+        for (String text : normalized) {
+            tokens.addAll(tokens(text));
+        }
+        return () -> cache.asMap().keySet().removeIf(key -> affects(key.getText(), normalized, tokens));
+    }
+
+    private static boolean affects(String query, String[] texts, Set<String> tokens) {
+        if (query.contains("%") || query.contains("_")) {
+            return true;
+        }
+        for (String text : texts) {
+            if (text.contains(query)) {
+                return true;
+            }
+        }
+        List<String> queryTokens = tokens(query);
+        return !queryTokens.isEmpty() && tokens.containsAll(queryTokens);
+    }
+
+    private static List<String> tokens(String text) {
+        return Arrays.stream(NOT_WORD.split(text))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Data
+    private static class Key {
+        private final String text;
+        private final long offset;
+        private final int size;
+    }
+}
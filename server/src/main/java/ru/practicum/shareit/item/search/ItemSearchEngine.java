@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии или описании. Реализация выбирается свойством
+ * {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable page);
+
+    /**
+     * Сообщает о создании или изменении вещи. Поиск на стороне БД видит изменения сам, поэтому по умолчанию
+     * ничего не делает.
+     */
+    default void indexItem(Item item) {
+    }
+}
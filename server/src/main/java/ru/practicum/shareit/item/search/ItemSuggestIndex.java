@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Автодополнение по словам из названий доступных вещей. Дерево строится при старте приложения и обновляется
+ * после фиксации транзакций, создающих или изменяющих вещи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TokenTrie trie = new TokenTrie(MAX_SUGGESTIONS);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        long lastId = 0;
+        int loaded = 0;
+        List<ItemSearchDocument> documents;
+        do {
+            documents = itemRepository.findAvailableSearchDocuments(lastId, batch);
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchDocument document : documents) {
+                    trie.add(document.getName());
+                    lastId = document.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += documents.size();
+        } while (documents.size() == LOAD_BATCH_SIZE);
+        log.info("Индекс автодополнения построен: {} вещей", loaded);
+    }
+
+    /**
+     * Подсказки для последнего слова в строке ввода.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        List<String> tokens = TokenTrie.tokens(prefix);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(tokens.get(tokens.size() - 1), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Заменяет название вещи в индексе; {@code null} означает, что вещь недоступна и в индексе не учитывается.
+     */
+    public void replace(String oldName, String newName) {
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                if (oldName != null) {
+                    trie.remove(oldName);
+                }
+                if (newName != null) {
+                    trie.add(newName);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Словарь слов в префиксном дереве с поиском по расстоянию Левенштейна. При обходе для каждого узла считается
+ * одна строка матрицы расстояний, поэтому общие префиксы слов обрабатываются один раз, а ветви, где минимум
+ * строки уже больше допуска, отсекаются.
+ * Класс не потокобезопасен, синхронизация на стороне вызывающего кода.
+ */
+public class LevenshteinTrie {
+    private final Node root = new Node();
+    private int size;
+
+    public void add(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrCreate(word.charAt(i));
+        }
+        if (!node.terminal) {
+            node.terminal = true;
+            size++;
+        }
+    }
+
+    public void remove(String word) {
+        if (remove(root, word, 0)) {
+            size--;
+        }
+    }
+
+    /**
+     * Слова на расстоянии не больше {@code maxDistance} от {@code word} вместе с этим расстоянием.
+     */
+    public Map<String, Integer> search(String word, int maxDistance) {
+        Map<String, Integer> result = new HashMap<>();
+        int[] firstRow = new int[word.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        if (root.terminal && firstRow[word.length()] <= maxDistance) {
+            result.put("", firstRow[word.length()]);
+        }
+        search(root, word, maxDistance, firstRow, new StringBuilder(), result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Расстояние Левенштейна между двумя словами.
+     */
+    public static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    private void search(Node node, String word, int maxDistance, int[] previous, StringBuilder prefix,
+                        Map<String, Integer> result) {
+        for (int i = 0; i < node.size; i++) {
+            char key = node.keys[i];
+            int[] row = new int[previous.length];
+            row[0] = previous[0] + 1;
+            int rowMin = row[0];
+            for (int j = 1; j < row.length; j++) {
+                int cost = word.charAt(j - 1) == key ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > maxDistance) {
+                continue;
+            }
+            Node child = node.children[i];
+            prefix.append(key);
+            if (child.terminal && row[word.length()] <= maxDistance) {
+                result.put(prefix.toString(), row[word.length()]);
+            }
+            search(child, word, maxDistance, row, prefix, result);
+            prefix.setLength(prefix.length() - 1);
+        }
+    }
+
+    private boolean remove(Node node, String word, int depth) {
+        if (depth == word.length()) {
+            boolean removed = node.terminal;
+            node.terminal = false;
+            return removed;
+        }
+        int index = node.indexOf(word.charAt(depth));
+        if (index < 0) {
+            return false;
+        }
+        Node child = node.children[index];
+        boolean removed = remove(child, word, depth + 1);
+        if (!child.terminal && child.size == 0) {
+            node.removeAt(index);
+        }
+        return removed;
+    }
+
+    private static class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private boolean terminal;
+
+        int indexOf(char key) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        Node childOrCreate(char key) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            Node child = new Node();
+            keys[index] = key;
+            children[index] = child;
+            size++;
+            return child;
+        }
+
+        void removeAt(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            size--;
+            children[size] = null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+
+import java.util.*;
+
+/**
+ * Префиксное дерево слов из названий вещей. В узле слова хранится число названий, содержащих это слово;
+ * дочерние узлы лежат в отсортированных массивах, чтобы дерево оставалось компактным. Каждый узел помнит
+ * {@code topSize} самых частых слов своего поддерева, поэтому подсказка стоит O(длина префикса + topSize)
+ * и не обходит поддерево. Списки обновляются на пути от изменённого слова к корню.
+ * Класс не потокобезопасен, синхронизация на стороне вызывающего кода.
+ */
+public class TokenTrie {
+    private static final Comparator<ItemSuggestionDto> BY_COUNT_DESC = Comparator
+            .comparing(ItemSuggestionDto::getCount).reversed()
+            .thenComparing(ItemSuggestionDto::getText);
+
+    private final Node root = new Node();
+    private final int topSize;
+
+    public TokenTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    public void add(String text) {
+        for (String token : tokens(text)) {
+            root.update(token, 0, 1, topSize);
+        }
+    }
+
+    public void remove(String text) {
+        for (String token : tokens(text)) {
+            root.update(token, 0, -1, topSize);
+        }
+    }
+
+    /**
+     * Возвращает не больше {@code min(limit, topSize)} подсказок.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ItemSuggestionDto> result = new ArrayList<>(Math.min(limit, node.top.size()));
+        for (int i = 0; i < node.top.size() && i < limit; i++) {
+            ItemSuggestionDto suggestion = node.top.get(i);
+            result.add(new ItemSuggestionDto(suggestion.getText(), suggestion.getCount()));
+        }
+        return result;
+    }
+
+    public static List<String> tokens(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private int count;
+        private List<ItemSuggestionDto> top = new ArrayList<>(0);
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index < 0 ? null : children[index];
+        }
+
+        boolean isEmpty() {
+            return count == 0 && size == 0;
+        }
+
+        /**
+         * Меняет счётчик слова и возвращает его новое значение либо -1, если удаляемого слова нет в дереве.
+         * После изменения поддерева обновляется список лучших слов узла; у корня он не ведётся.
+         */
+        int update(String token, int position, int delta, int topSize) {
+            int tokenCount;
+            if (position == token.length()) {
+                count = Math.max(0, count + delta);
+                tokenCount = count;
+            } else {
+                char key = token.charAt(position);
+                int index = Arrays.binarySearch(keys, 0, size, key);
+                if (index < 0) {
+                    if (delta < 0) {
+                        return -1;
+                    }
+                    index = insert(-index - 1, key);
+                }
+                tokenCount = children[index].update(token, position + 1, delta, topSize);
+                if (children[index].isEmpty()) {
+                    delete(index);
+                }
+            }
+            if (position > 0 && tokenCount >= 0) {
+                updateTop(token, position, tokenCount, delta, topSize);
+            }
+            return tokenCount;
+        }
+
+        /**
+         * Рост счётчика только поднимает слово внутри списка или вытесняет последнее. Если же уменьшилось слово
+         * из списка, его место может занять слово, которого в списке нет, и список собирается заново из
+         * собственного слова узла и списков дочерних узлов, уже обновлённых к этому моменту.
+         */
+        private void updateTop(String token, int position, int tokenCount, int delta, int topSize) {
+            int index = indexOf(token);
+            if (delta > 0) {
+                if (index >= 0) {
+                    top.remove(index);
+                }
+                ItemSuggestionDto suggestion = new ItemSuggestionDto(token, tokenCount);
+                int insertion = -Collections.binarySearch(top, suggestion, BY_COUNT_DESC) - 1;
+                if (insertion < topSize) {
+                    top.add(insertion, suggestion);
+                    if (top.size() > topSize) {
+                        top.remove(topSize);
+                    }
+                }
+            } else if (index >= 0) {
+                List<ItemSuggestionDto> candidates = new ArrayList<>();
+                if (count > 0) {
+                    candidates.add(new ItemSuggestionDto(token.substring(0, position), count));
+                }
+                for (int i = 0; i < size; i++) {
+                    candidates.addAll(children[i].top);
+                }
+                candidates.sort(BY_COUNT_DESC);
+                top = new ArrayList<>(candidates.subList(0, Math.min(topSize, candidates.size())));
+            }
+        }
+
+        private int indexOf(String token) {
+            for (int i = 0; i < top.size(); i++) {
+                if (top.get(i).getText().equals(token)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int insert(int index, char key) {
+            keys = Arrays.copyOf(keys, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            keys[index] = key;
+            children[index] = new Node();
+            size++;
+            return index;
+        }
+
+        private void delete(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            size--;
+            keys = Arrays.copyOf(keys, size);
+            children = Arrays.copyOf(children, size);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания вещей. Каждой вещи выдаётся внутренний номер
+ * слота, списки вхождений триграмм хранятся как отсортированные массивы int. Кандидаты, найденные пересечением
+ * списков, проверяются на вхождение подстроки, поэтому результат совпадает с поиском через LIKE. Слоты удалённых
+ * вещей попадают в список свободных и выдаются повторно, так что число слотов не превышает наибольшего числа
+ * вещей, одновременно находившихся в индексе.
+ */
+public class TrigramIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByItemId = new HashMap<>();
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    public void put(long itemId, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+            int slot = allocateSlot();
+            itemIds[slot] = itemId;
+            names[slot] = normalize(name);
+            descriptions[slot] = normalize(description);
+            for (long trigram : trigramsOf(names[slot], descriptions[slot])) {
+                postings.computeIfAbsent(trigram, t -> new PostingList()).insert(slot);
+            }
+            slotsByItemId.put(itemId, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает номера вещей, содержащих текст: сначала совпадения в названии, затем только в описании,
+     * внутри каждой группы по возрастанию номера.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            long[] nameMatches = new long[16];
+            long[] descriptionMatches = new long[16];
+            int nameCount = 0;
+            int descriptionCount = 0;
+            for (int slot : candidates(query)) {
+                if (names[slot] == null) {
+                    continue;
+                }
+                if (names[slot].contains(query)) {
+                    nameMatches = ensureCapacity(nameMatches, nameCount);
+                    nameMatches[nameCount++] = itemIds[slot];
+                } else if (descriptions[slot].contains(query)) {
+                    descriptionMatches = ensureCapacity(descriptionMatches, descriptionCount);
+                    descriptionMatches[descriptionCount++] = itemIds[slot];
+                }
+            }
+            Arrays.sort(nameMatches, 0, nameCount);
+            Arrays.sort(descriptionMatches, 0, descriptionCount);
+
+            List<Long> result = new ArrayList<>(Math.min(limit, nameCount + descriptionCount));
+            for (long i = offset; i < nameCount + descriptionCount && result.size() < limit; i++) {
+                result.add(i < nameCount ? nameMatches[(int) i] : descriptionMatches[(int) (i - nameCount)]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String query) {
+        if (query.length() < 3) {
+            int[] all = new int[slotCount - freeCount];
+            int size = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (names[slot] != null) {
+                    all[size++] = slot;
+                }
+            }
+            return all;
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (long trigram : trigramsOf(query, "")) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        int[] result = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            PostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(list.slots, 0, list.size, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void removeUnlocked(long itemId) {
+        Integer slot = slotsByItemId.remove(itemId);
+        if (slot == null) {
+            return;
+        }
+        for (long trigram : trigramsOf(names[slot], descriptions[slot])) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        names[slot] = null;
+        descriptions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == itemIds.length) {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static Set<Long> trigramsOf(String name, String description) {
+        Set<Long> trigrams = new HashSet<>();
+        addTrigrams(name, trigrams);
+        addTrigrams(description, trigrams);
+        return trigrams;
+    }
+
+    private static void addTrigrams(String text, Set<Long> trigrams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] ensureCapacity(long[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, array.length * 2);
+    }
+
+    private static class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        /**
+         * Вставляет слот с сохранением порядка: новые слоты добавляются в конец, повторно выданные
+         * встают на своё место.
+         */
+        void insert(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            int index = size == 0 || slots[size - 1] < slot ? size : -Arrays.binarySearch(slots, 0, size, slot) - 1;
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
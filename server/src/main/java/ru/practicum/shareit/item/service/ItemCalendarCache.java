@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Кэш календаря свободных периодов вещи по ключу (вещь, версия вещи, начало, конец). Создание бронирования или
+ * решение по нему увеличивает версию вещи: записи со старой версией больше не читаются и вытесняются по ttl
+ * или размеру, а результат загрузки, начатой до изменения, попадает под старую версию и тоже не читается.
+ */
+@Component
+public class ItemCalendarCache {
+    private final Cache<Key, List<FreeIntervalDto>> cache;
+    // версии не вытесняются: сброс версии в ноль снова открыл бы устаревшие записи
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public ItemCalendarCache(@Value("${shareit.calendar.cache.max-size:10000}") long maxSize,
+                             @Value("${shareit.calendar.cache.ttl:60s}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemCalendar");
+    }
+
+    public List<FreeIntervalDto> get(long itemId, LocalDateTime from, LocalDateTime to,
+                                     Supplier<List<FreeIntervalDto>> loader) {
+        long version = versions.getOrDefault(itemId, 0L);
+        return cache.get(new Key(itemId, version, from, to), key -> loader.get());
+    }
+
+    /**
+     * Делает календари вещи устаревшими. Внутри транзакции версия меняется после её фиксации.
+     */
+    public void invalidate(long itemId) {
+        Runnable invalidation = () -> versions.merge(itemId, 1L, Long::sum);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
+    @Data
+    private static class Key {
+        private final long itemId;
+        private final long version;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Периодически сверяет счётчики отзывов и подтверждённых бронирований вещей с данными таблиц comments
+ * и bookings. Вещи обходятся пачками по возрастанию номера, каждая пачка исправляется отдельной транзакцией,
+ * поэтому проход не держит блокировки на всю таблицу. Расхождение, внесённое параллельной транзакцией во время
+ * пересчёта, исправится при следующем проходе.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.counters.reconciler.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemCounterReconciler {
+    private final ItemRepository itemRepository;
+    private final int batchSize;
+
+    public ItemCounterReconciler(ItemRepository itemRepository,
+                                 @Value("${shareit.counters.reconciler.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.counters.reconciler.initial-delay:PT5M}",
+            fixedDelayString = "${shareit.counters.reconciler.interval:PT1H}")
+    public int reconcile() {
+        Pageable batch = PageRequest.of(0, batchSize);
+        long lastId = 0;
+        int repaired = 0;
+        List<Long> ids;
+        do {
+            ids = itemRepository.findIdsAfter(lastId, batch);
+            if (ids.isEmpty()) {
+                break;
+            }
+            repaired += itemRepository.reconcileCounters(ids, BookingStatus.APPROVED);
+            lastId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        if (repaired > 0) {
+            log.warn("Исправлены счётчики отзывов и бронирований у {} вещей", repaired);
+        }
+        return repaired;
+    }
+}
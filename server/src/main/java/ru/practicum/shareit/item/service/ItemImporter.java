@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validator.ItemValidatorService;
+import ru.practicum.shareit.validator.UserValidatorService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт вещей из потока NDJSON. Строки читаются по мере поступления и сохраняются пачками по
+ * {@code CHUNK_SIZE} в отдельных транзакциях; номера вещей берутся из последовательности, поэтому Hibernate
+ * отправляет вставки пакетами. Если пачка не сохранилась целиком, её строки сохраняются по одной, чтобы
+ * ошибка досталась только своей строке.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImporter {
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final UserRepository userRepository;
+    private final UserValidatorService userValidator;
+    private final ItemValidatorService itemValidator;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemFuzzyIndex fuzzyIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+
+    public ItemImportResultDto importItems(long ownerId, InputStream rows) throws IOException {
+        userValidator.checkingUserIdAndNotReturn(ownerId);
+        long startedAt = System.nanoTime();
+        Report report = new Report();
+        List<ItemImportRowDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(rows, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemImportRowDto row = parse(line, lineNumber, report);
+            if (row == null) {
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(ownerId, chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(ownerId, chunk, report);
+        }
+        long durationMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Импорт вещей пользователя {}: сохранено {}, отклонено {} за {} мс", ownerId, report.imported,
+                report.failed, durationMillis);
+        report.errors.sort(Comparator.comparing(ItemImportErrorDto::getLine));
+        return ItemImportResultDto.builder()
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .durationMillis(durationMillis)
+                .itemsPerSecond(report.imported * 1000 / Math.max(durationMillis, 1))
+                .build();
+    }
+
+    private ItemImportRowDto parse(String line, long lineNumber, Report report) {
+        ItemImportRowDto row;
+        try {
+            row = objectMapper.readValue(line, ItemImportRowDto.class);
+        } catch (JsonProcessingException e) {
+            report.reject(lineNumber, "Некорректная строка: " + e.getOriginalMessage());
+            return null;
+        }
+        if (row.getLine() == null) {
+            row.setLine(lineNumber);
+        }
+        if (row.getError() != null) {
+            report.reject(row.getLine(), row.getError());
+            return null;
+        }
+        try {
+            itemValidator.validateImportRow(row);
+        } catch (DataValidationException e) {
+            report.reject(row.getLine(), e.getMessage());
+            return null;
+        }
+        return row;
+    }
+
+    private void writeChunk(long ownerId, List<ItemImportRowDto> rows, Report report) {
+        List<ItemImportErrorDto> errors;
+        try {
+            errors = transaction.execute(status -> insert(ownerId, rows));
+        } catch (DataAccessException e) {
+            log.warn("Пачка импорта не сохранилась целиком, строки сохраняются по одной: {}", e.getMessage());
+            errors = new ArrayList<>();
+            for (ItemImportRowDto row : rows) {
+                try {
+                    errors.addAll(transaction.execute(status -> insert(ownerId, List.of(row))));
+                } catch (DataAccessException rowException) {
+                    errors.add(new ItemImportErrorDto(row.getLine(), "Не удалось сохранить вещь"));
+                }
+            }
+        }
+        report.imported += rows.size() - errors.size();
+        errors.forEach(error -> report.reject(error.getLine(), error.getError()));
+    }
+
+    /**
+     * Сохраняет строки одним пакетом и возвращает ошибки строк, ссылающихся на несуществующие запросы.
+     */
+    private List<ItemImportErrorDto> insert(long ownerId, List<ItemImportRowDto> rows) {
+        User owner = userRepository.getReferenceById(ownerId);
+        Set<Long> requestIds = rows.stream()
+                .map(ItemImportRowDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        if (!requestIds.isEmpty()) {
+            requestRepository.findAllById(requestIds).forEach(request -> requests.put(request.getId(), request));
+        }
+
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        List<Item> items = new ArrayList<>(rows.size());
+        for (ItemImportRowDto row : rows) {
+            if (row.getRequestId() != null && !requests.containsKey(row.getRequestId())) {
+                errors.add(new ItemImportErrorDto(row.getLine(), "Несуществующий запрос: " + row.getRequestId()));
+                continue;
+            }
+            items.add(Item.builder()
+                    .name(row.getName())
+                    .description(row.getDescription())
+                    .available(row.getAvailable())
+                    .owner(owner)
+                    .request(requests.get(row.getRequestId()))
+                    .build());
+        }
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+
+        List<String> texts = new ArrayList<>(items.size() * 2);
+        for (Item item : items) {
+            searchEngine.indexItem(item);
+            fuzzyIndex.indexItem(item);
+            suggestIndex.replace(null, Boolean.TRUE.equals(item.getAvailable()) ? item.getName() : null);
+            texts.add(item.getName());
+            texts.add(item.getDescription());
+        }
+        searchCache.invalidate(texts.toArray(new String[0]));
+        return errors;
+    }
+
+    private static class Report {
+        private long imported;
+        private long failed;
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+
+        void reject(Long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ItemImportErrorDto(line, error));
+            }
+        }
+    }
+}
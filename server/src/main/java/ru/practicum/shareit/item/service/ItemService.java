@@ -2,9 +2,14 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
     ItemDto createItemDto(ItemDto item, Long userId);
@@ -17,5 +22,16 @@ public interface ItemService {
 
     Collection<ItemDto> getItemsDtoBySearch(String text, Pageable page);
 
+    Collection<ItemDto> getItemsDtoBySearchFreeBetween(String text, LocalDateTime start, LocalDateTime end,
+                                                       Pageable page);
+
+    Collection<ItemDto> getItemsDtoByFuzzySearch(String text, Pageable page);
+
+    CommentPageDto getCommentsPage(long itemId, String after, Integer limit);
+
+    List<FreeIntervalDto> getFreeIntervals(long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemSuggestionDto> getSuggestions(String prefix, Integer size);
+
     CommentDto addCommentToItem(Long userId, Long itemId, CommentDto commentDto);
 }
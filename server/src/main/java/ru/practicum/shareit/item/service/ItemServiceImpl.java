@@ -7,22 +7,33 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.validator.ItemValidatorService;
 import ru.practicum.shareit.validator.UserValidatorService;
 
@@ -35,26 +46,47 @@ import static ru.practicum.shareit.item.dto.ItemMapper.*;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final List<BookingStatus> NOT_ACTIVE_STATUSES = List.of(BookingStatus.REJECTED,
+            BookingStatus.CANCELED);
+    private static final int COMMENTS_PER_ITEM = 10;
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.APPROVED,
+            BookingStatus.WAITING);
 
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final UserRepository userRepository;
     private final UserValidatorService userValidator;
     private final ItemValidatorService itemValidator;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemFuzzyIndex fuzzyIndex;
+    private final ItemCalendarCache calendarCache;
 
     @Transactional
     @Override
     public ItemDto createItemDto(ItemDto itemDto, Long userId) {
         Item newItem = ItemMapper.toItem(itemDto);
-        newItem.setOwner(userValidator.returnUserIfExists(userId));
         User userFromDb = userValidator.returnUserIfExists(userId);
+        newItem.setOwner(userFromDb);
         if (itemDto.getRequestId() != null) {
             ItemRequest request = requestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new DataNotFoundException("Несуществующий запрос: " + itemDto.getRequestId()));
-            return toItemDtoWithRequestId(itemRepository.save(toItemDbWithRequest(itemDto, userFromDb, request)));
+            Item savedItem = itemRepository.save(toItemDbWithRequest(itemDto, userFromDb, request));
+            searchEngine.indexItem(savedItem);
+            fuzzyIndex.indexItem(savedItem);
+            searchCache.invalidate(savedItem.getName(), savedItem.getDescription());
+            suggestIndex.replace(null, availableName(savedItem));
+            return toItemDtoWithRequestId(savedItem);
         }
-        return toItemDto(itemRepository.save(newItem));
+        Item savedItem = itemRepository.save(newItem);
+        searchEngine.indexItem(savedItem);
+        fuzzyIndex.indexItem(savedItem);
+        searchCache.invalidate(savedItem.getName(), savedItem.getDescription());
+        suggestIndex.replace(null, availableName(savedItem));
+        return toItemDto(savedItem);
     }
 
     @Transactional
@@ -65,6 +97,9 @@ public class ItemServiceImpl implements ItemService {
         if (!itemOld.getOwner().getId().equals(userId)) {
             throw new DataNotFoundException("У пользователя нет такой вещи!");
         }
+        String oldName = itemOld.getName();
+        String oldDescription = itemOld.getDescription();
+        String oldAvailableName = availableName(itemOld);
         if (itemDto.getName() != null) {
             itemOld.setName(itemDto.getName());
         }
@@ -76,6 +111,10 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.save(itemOld);
+        searchEngine.indexItem(itemOld);
+        fuzzyIndex.indexItem(itemOld);
+        searchCache.invalidate(oldName, oldDescription, itemOld.getName(), itemOld.getDescription());
+        suggestIndex.replace(oldAvailableName, availableName(itemOld));
         return toItemDto(itemOld);
     }
 
@@ -83,30 +122,25 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto getItemDtoById(long itemId, long userId) {
         userValidator.checkingUserIdAndNotReturn(userId);
-        List<CommentDto> commentsForItem = commentRepository.findAllByItem_Id(itemId)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        List<BookingDto> bookingsForItem = getOwnerBooking(userId)
-                .stream()
-                .filter(x -> x.getItem().getId().equals(itemId))
-                .collect(Collectors.toList());
-
-        if (!bookingsForItem.isEmpty() && !commentsForItem.isEmpty()) {
-            return ItemMapper.toItemDtoWithBookingsAndComments(itemRepository.findById(itemId)
-                    .orElseThrow(() -> new DataNotFoundException("Несуществующий предмет под номером " + itemId)),
-                    bookingsForItem, commentsForItem);
-        } else if (!bookingsForItem.isEmpty()) {
-            return ItemMapper.toItemDtoWithBookingsAndComments(itemRepository.findById(itemId)
-                            .orElseThrow(() -> new DataNotFoundException("Несуществующий предмет под номером "
-                                    + itemId)),
-                    bookingsForItem, commentsForItem);
-        } else {
-            return ItemMapper.toItemDtoWithComments(itemRepository.findById(itemId)
-                            .orElseThrow(() -> new DataNotFoundException("Несуществующий предмет под номером "
-                                    + itemId)),
-                    commentsForItem);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new DataNotFoundException("Несуществующий предмет под номером " + itemId));
+        CommentCursor first = CommentCursor.first();
+        List<CommentDto> latestComments = CommentMapper.toCommentsDto(commentRepository.findAllByItemIdKeyset(itemId,
+                first.getCreated(), first.getId(), PageRequest.of(0, COMMENTS_PER_ITEM + 1)));
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+        setLatestComments(itemDto, latestComments);
+        if (item.getOwner() == null || !Objects.equals(item.getOwner().getId(), userId)) {
+            return itemDto;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookingRepository.findLastAndNextByItemId(itemId, NOT_ACTIVE_STATUSES, now)) {
+            if (booking.getStart().isBefore(now)) {
+                itemDto.setLastBooking(BookingMapper.toBookingShortDto(BookingMapper.toBookingDto(booking)));
+            } else {
+                itemDto.setNextBooking(BookingMapper.toBookingShortDto(BookingMapper.toBookingDto(booking)));
+            }
         }
+        return itemDto;
     }
 
     @Transactional(readOnly = true)
@@ -115,30 +149,24 @@ public class ItemServiceImpl implements ItemService {
         userValidator.checkingUserIdAndNotReturn(userId);
         Pageable pageForItems = PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by(Sort.Direction.ASC,
                 "id"));
-        Pageable pageForComments = PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by(Sort.Direction.DESC,
-                "created"));
-
         List<Item> userItems = new ArrayList<>(itemRepository.findByOwner_Id(userId, pageForItems));
-        List<CommentDto> commentsToUserItems = commentRepository.findAllByItemsUser_Id(userId, pageForComments)
-                .stream().map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        List<BookingDto> bookingsToUserItems = getOwnerBooking(userId);
-
-        Map<Item, List<BookingDto>> itemsWithBookingsMap = new HashMap<>();
-        Map<Item, List<CommentDto>> itemsWithCommentsMap = new HashMap<>();
-
-        for (Item i : userItems) {
-            itemsWithCommentsMap.put(i, commentsToUserItems.stream()
-                    .filter(c -> c.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList()));
-            itemsWithBookingsMap.put(i, bookingsToUserItems.stream()
-                    .filter(b -> b.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList()));
+        if (userItems.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Long> itemIds = userItems.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingDto> lastBookings = toBookingsByItemId(bookingRepository.findLastBookingsByItemIds(itemIds,
+                NOT_ACTIVE_STATUSES, now));
+        Map<Long, BookingDto> nextBookings = toBookingsByItemId(bookingRepository.findNextBookingsByItemIds(itemIds,
+                NOT_ACTIVE_STATUSES, now));
+        Map<Long, List<CommentDto>> comments = findLatestComments(itemIds, COMMENTS_PER_ITEM + 1);
+
         List<ItemDto> results = new ArrayList<>();
         for (Item i : userItems) {
-            results.add(ItemMapper.toItemDtoWithBookingsAndComments(i, itemsWithBookingsMap.get(i),
-                    itemsWithCommentsMap.get(i)));
+            ItemDto itemDto = ItemMapper.toItemDtoWithBookings(i, lastBookings.get(i.getId()),
+                    nextBookings.get(i.getId()));
+            setLatestComments(itemDto, comments.getOrDefault(i.getId(), new ArrayList<>()));
+            results.add(itemDto);
         }
         return results;
     }
@@ -146,37 +174,135 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> getItemsDtoBySearch(String text, Pageable page) {
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+        return searchCache.get(text, page.getOffset(), page.getPageSize(), query -> searchEngine.search(query, page)
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<ItemDto> getItemsDtoBySearchFreeBetween(String text, LocalDateTime start, LocalDateTime end,
+                                                              Pageable page) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new DataValidationException("Дата начала периода должна быть раньше даты окончания!");
+        }
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.getItemsBySearchQuery(text, page).stream()
+        return itemRepository.getItemsBySearchQueryFreeBetween(text, start, end, BLOCKING_STATUSES, page)
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<ItemDto> getItemsDtoByFuzzySearch(String text, Pageable page) {
+        List<Long> ids = fuzzyIndex.search(text, page.getOffset(), page.getPageSize());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+        return ids.stream()
+                .map(items::get)
+                .filter(i -> i != null && Boolean.TRUE.equals(i.getAvailable()))
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CommentPageDto getCommentsPage(long itemId, String after, Integer limit) {
+        itemValidator.validateItemId(itemId);
+        CommentCursor cursor = CommentCursor.decode(after);
+        return CommentMapper.toCommentPageDto(commentRepository.findAllByItemIdKeyset(itemId, cursor.getCreated(),
+                cursor.getId(), PageRequest.of(0, limit + 1)), limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<FreeIntervalDto> getFreeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new DataValidationException("Дата начала периода должна быть раньше даты окончания!");
+        }
+        itemValidator.validateItemId(itemId);
+        return calendarCache.get(itemId, from, to, () -> {
+            List<FreeIntervalDto> intervals = new ArrayList<>();
+            LocalDateTime freeFrom = from;
+            for (BookingInterval booking : bookingRepository.findIntervalsByItemIdBetween(itemId,
+                    BLOCKING_STATUSES, from, to)) {
+                if (booking.getStart().isAfter(freeFrom)) {
+                    intervals.add(new FreeIntervalDto(freeFrom, booking.getStart()));
+                }
+                if (booking.getEnd().isAfter(freeFrom)) {
+                    freeFrom = booking.getEnd();
+                }
+            }
+            if (freeFrom.isBefore(to)) {
+                intervals.add(new FreeIntervalDto(freeFrom, to));
+            }
+            return intervals;
+        });
+    }
+
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(String prefix, Integer size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
     @Transactional
     @Override
     public CommentDto addCommentToItem(Long userId, Long itemId, CommentDto commentDto) {
         itemValidator.validateCommentData(commentDto);
-        UserDto author = userValidator.checkingUserId(userId);
-        List<BookingDto> bookings = bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(userId, itemId,
-                        LocalDateTime.now())
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
-        if (bookings.isEmpty()) {
+        if (!bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(userId, itemId, LocalDateTime.now())) {
+            userValidator.checkingUserIdAndNotReturn(userId);
             throw new DataValidationException("Данный пользователь не бронировал вещь");
         }
-        ItemDto item = getItemDtoById(itemId, userId);
-        commentDto = CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(commentDto,
-                UserMapper.toUser(author), ItemMapper.toItem(item))));
-        return commentDto;
+        // имя автора берётся из снимка пользователя, чтобы не инициализировать ссылку лишним SELECT
+        String authorName = userValidator.checkingUserId(userId).getName();
+        Comment comment = commentRepository.save(CommentMapper.toComment(commentDto,
+                userRepository.getReferenceById(userId), itemRepository.getReferenceById(itemId)));
+        itemRepository.incrementCommentsCount(itemId);
+        return CommentMapper.toNewCommentDto(comment, authorName);
     }
 
-    private List<BookingDto> getOwnerBooking(Long ownerId) {
-        return bookingRepository.findAllByItem_Owner_Id(ownerId)
-                .stream()
+    /**
+     * Встраивает в вещь не больше {@code COMMENTS_PER_ITEM} последних комментариев из переданных, от новых
+     * к старым; если комментариев больше, сохраняет курсор для продолжения через {@code /items/{id}/comments}.
+     */
+    private void setLatestComments(ItemDto itemDto, List<CommentDto> comments) {
+        if (comments.size() > COMMENTS_PER_ITEM) {
+            comments = new ArrayList<>(comments.subList(0, COMMENTS_PER_ITEM));
+            itemDto.setMoreComments(CommentCursor.after(comments.get(COMMENTS_PER_ITEM - 1)).encode());
+        }
+        itemDto.setComments(comments);
+    }
+
+    /**
+     * Последние комментарии вещей, сгруппированные по вещи: не более {@code limit} на вещь, от новых к старым.
+     */
+    private Map<Long, List<CommentDto>> findLatestComments(List<Long> itemIds, int limit) {
+        List<Long> commentIds = commentRepository.findLatestIdsByItemIdIn(itemIds, limit);
+        if (commentIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return commentRepository.findAllWithAuthorByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+    }
+
+    private Map<Long, BookingDto> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
                 .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(BookingDto::getItemId, b -> b, (first, second) -> first));
+    }
+
+    private String availableName(Item item) {
+        return Boolean.TRUE.equals(item.getAvailable()) ? item.getName() : null;
     }
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.pagination;
+
+import ru.practicum.shareit.exception.DataValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Общий формат курсоров постраничных списков: части позиции склеиваются через "|" и кодируются в Base64 URL
+ * без выравнивания. Пустой токен означает первую страницу, любой некорректный токен — ошибку валидации.
+ */
+public final class CursorCodec {
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            if (value.length() > 0) {
+                value.append(SEPARATOR);
+            }
+            value.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает токен из {@code partCount} частей; ошибки разбора частей в {@code parser} тоже считаются
+     * некорректным курсором.
+     */
+    public static <T> T decode(String token, int partCount, Supplier<T> first, Function<String[], T> parser) {
+        if (token == null || token.isEmpty()) {
+            return first.get();
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", -1);
+            if (parts.length != partCount) {
+                throw new IllegalArgumentException("Неверное число частей курсора: " + parts.length);
+            }
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw new DataValidationException("Некорректный курсор: " + token);
+        }
+    }
+}
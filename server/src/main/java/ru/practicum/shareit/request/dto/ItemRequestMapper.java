@@ -6,6 +6,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,9 +23,16 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
+        return toItemRequestDto(itemRequest, itemRequest.getResponsesToRequest());
+    }
+
+    /**
+     * Запрос с заранее загруженными ответами {@code responses}, ленивая коллекция запроса не используется.
+     */
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, Collection<Item> responses) {
         List<ItemForRequestDto> items = null;
-        if (itemRequest.getResponsesToRequest() != null) {
-            items = itemRequest.getResponsesToRequest().stream()
+        if (responses != null) {
+            items = responses.stream()
                     .map(ItemRequestMapper::makeResultItemDto)
                     .collect(Collectors.toList());
         }
@@ -16,11 +16,14 @@ import java.util.Collection;
  */
 @Data
 @Entity
+@NamedEntityGraph(name = ItemRequest.WITH_REQUESTER, attributeNodes = @NamedAttributeNode("requester"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "requests")
 public class ItemRequest {
+    public static final String WITH_REQUESTER = "ItemRequest.withRequester";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -9,8 +10,10 @@ import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(ItemRequest.WITH_REQUESTER)
     List<ItemRequest> findAllByRequester_Id(Long requesterId);
 
+    @EntityGraph(ItemRequest.WITH_REQUESTER)
     @Query("SELECT ir " +
             "FROM ItemRequest ir " +
             "WHERE ir.requester.id != :userId")
@@ -3,9 +3,13 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import  ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -13,7 +17,10 @@ import ru.practicum.shareit.validator.RequestValidatorService;
 import ru.practicum.shareit.validator.UserValidatorService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.dto.ItemRequestMapper.*;
@@ -23,39 +30,56 @@ import static ru.practicum.shareit.request.dto.ItemRequestMapper.*;
 @RequiredArgsConstructor
 public class ItemRequestServicelmpl implements ItemRequestService {
     private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final UserValidatorService userValidator;
     private final RequestValidatorService requestValidator;
 
     @Override
     public ItemRequestDto addNewRequest(ItemRequestDto requestDto, Long userId) {
-        User requester = userValidator.returnUserIfExists(userId);
+        // автор в ответе берётся из снимка, для внешнего ключа достаточно его id
+        User requester = UserMapper.toUser(userValidator.checkingUserId(userId));
         requestDto.setCreated(LocalDateTime.now());
         requestValidator.validateItemRequestData(requestDto);
         return toItemRequestDto(requestRepository.save(ItemRequestMapper.toItemRequest(requestDto,
                 requester)));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> getAllUserRequestsWithResponses(Long userId) {
         userValidator.checkingUserIdAndNotReturn(userId);
-        return requestRepository.findAllByRequester_Id(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requestRepository.findAllByRequester_Id(userId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> getAllRequestsToResponse(Long userId, Pageable page) {
         userValidator.checkingUserIdAndNotReturn(userId);
-        return requestRepository.findAllByAllOtherUsers(userId, page).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requestRepository.findAllByAllOtherUsers(userId, page));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
         userValidator.checkingUserIdAndNotReturn(userId);
         ItemRequest request = requestValidator.validateItemRequestIdAndReturn(requestId);
-        return toItemRequestDto(request);
+        return toItemRequestDtos(List.of(request)).get(0);
+    }
+
+    /**
+     * Ответы на все запросы загружаются одним запросом по списку номеров и раскладываются по запросам в памяти.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<Item>> responses = itemRepository.findAllByRequest_IdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return requests.stream()
+                .map(request -> toItemRequestDto(request, responses.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
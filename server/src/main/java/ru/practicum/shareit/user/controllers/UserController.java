@@ -2,9 +2,20 @@ package ru.practicum.shareit.user.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.user.dto.EmailCheckRequestDto;
+import ru.practicum.shareit.user.dto.EmailCheckResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
+import ru.practicum.shareit.user.service.UserExporter;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.validator.PageValidatorService;
+import ru.practicum.shareit.validator.UserValidatorService;
 
 import javax.validation.Valid;
 import java.util.Collection;
@@ -17,12 +28,49 @@ import java.util.Collection;
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
     private final UserService userService;
+    private final UserExporter userExporter;
+    private final PageValidatorService validator;
+    private final UserValidatorService userValidator;
 
+    /**
+     * Без параметров возвращает всех пользователей, как до появления пагинации. Для больших выгрузок
+     * предназначен {@code /users/export}.
+     */
     @GetMapping
-    public Collection<UserDto> getUsers() {
-        log.info("Получение всех пользователей");
-        return userService.getUsersDto();
+    public Collection<UserDto> getUsers(@RequestParam(required = false) Integer from,
+                                        @RequestParam(required = false) Integer size) {
+        if (from == null && size == null) {
+            log.info("Получение всех пользователей");
+            return userService.getUsersDto(Pageable.unpaged());
+        }
+        from = from == null ? 0 : from;
+        size = size == null ? DEFAULT_PAGE_SIZE : size;
+        validator.checkingPageableParams(from, size);
+        validator.checkingCursorPageSize(size);
+        log.info("Получение пользователей начиная с {}", from);
+        return userService.getUsersDto(PageRequest.of(from / size, size));
+    }
+
+    @GetMapping(params = "cursor")
+    public UserPageDto getUsersPage(@RequestParam String cursor,
+                                    @RequestParam(defaultValue = "100") Integer size) {
+        validator.checkingCursorPageSize(size);
+        log.info("Получение страницы пользователей после курсора '{}'", cursor);
+        return userService.getUsersPage(cursor, size);
+    }
+
+    /**
+     * Выгрузка всех пользователей в NDJSON, строки отправляются по мере чтения из базы.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("Выгрузка всех пользователей");
+        StreamingResponseBody body = userExporter::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/{userId}")
@@ -37,6 +85,16 @@ public class UserController {
         return userService.createUserDto(userDto);
     }
 
+    /**
+     * Проверка занятости адресов для формы регистрации, не больше 1000 адресов за запрос.
+     */
+    @PostMapping("/emails/check")
+    public EmailCheckResultDto checkEmails(@RequestBody EmailCheckRequestDto request) {
+        userValidator.validateEmailCheck(request);
+        log.info("Проверка занятости {} адресов", request.getEmails().size());
+        return userService.checkEmails(request.getEmails());
+    }
+
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
         log.debug("Обновление данных пользователя под номером: {}", userId);
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат проверки адресов: {@code taken} содержит уже зарегистрированные адреса, {@code available} свободные,
+ * оба списка в порядке запроса.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailCheckResultDto {
+    private List<String> taken;
+    private List<String> available;
+}
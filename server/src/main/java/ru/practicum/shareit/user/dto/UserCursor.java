@@ -0,0 +1,32 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Позиция в списке пользователей, отсортированном по id по возрастанию.
+ * Клиенту передаётся в виде непрозрачной строки, пустая строка означает первую страницу.
+ */
+@Data
+@AllArgsConstructor
+public class UserCursor {
+    private Long id;
+
+    public static UserCursor first() {
+        return new UserCursor(0L);
+    }
+
+    public static UserCursor after(User user) {
+        return new UserCursor(user.getId());
+    }
+
+    public static UserCursor decode(String token) {
+        return CursorCodec.decode(token, 1, UserCursor::first, parts -> new UserCursor(Long.parseLong(parts[0])));
+    }
+
+    public String encode() {
+        return CursorCodec.encode(id);
+    }
+}
@@ -3,6 +3,9 @@ package ru.practicum.shareit.user.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 public class UserMapper {
 
@@ -21,4 +24,16 @@ public class UserMapper {
                 userDto.getEmail()
         );
     }
+
+    public static UserPageDto toUserPageDto(List<User> users, int size) {
+        String next = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            next = UserCursor.after(users.get(size - 1)).encode();
+        }
+        return UserPageDto.builder()
+                .users(users.stream().map(UserMapper::toUserDto).collect(Collectors.toList()))
+                .next(next)
+                .build();
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница пользователей в режиме курсорной пагинации: {@code next} содержит курсор следующей
+ * страницы или {@code null}, если страница последняя.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDto {
+    private List<UserDto> users;
+    private String next;
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по адресам зарегистрированных пользователей. Отрицательный ответ {@link #mightContain} означает,
+ * что адрес не записывался через этот экземпляр и проверку в базе перед записью можно пропустить. Фильтр заполняется при старте приложения и
+ * дополняется при создании и изменении пользователей; освободившиеся адреса из него не удаляются и дают
+ * только лишние запросы к базе. Пока фильтр не заполнен, любой адрес считается возможно занятым.
+ * <p>
+ * Фильтр локален для экземпляра: адреса, добавленные другими экземплярами или напрямую в базу после
+ * заполнения, в нём отсутствуют. Поэтому отрицательный ответ годится только как быстрый путь перед записью,
+ * которую страхует уникальный индекс по email, но не как окончательный ответ о свободности адреса.
+ */
+@Slf4j
+@Component
+public class UserEmailFilter {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean loaded;
+
+    public UserEmailFilter(UserRepository userRepository,
+                           @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                           @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        long lastId = 0;
+        long count = 0;
+        List<User> users;
+        do {
+            users = userRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, batch);
+            for (User user : users) {
+                add(user.getEmail());
+                lastId = user.getId();
+            }
+            count += users.size();
+        } while (users.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("Фильтр адресов пользователей заполнен: {} адресов", count);
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded) {
+            return true;
+        }
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(first + (long) i * second, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(first + (long) i * second, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * 64-битный FNV-1a с перемешиванием из MurmurHash3, половины результата используются как две
+     * независимые хеш-функции.
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всех пользователей в NDJSON. Пользователи читаются курсором и пишутся в поток по одному,
+ * прочитанные сущности сразу отсоединяются от контекста, поэтому расход памяти не зависит от их числа.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExporter {
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream target) {
+        ObjectWriter writer = objectMapper.writer();
+        long exported = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                target.write(writer.writeValueAsBytes(UserMapper.toUserDto(user)));
+                target.write(LINE_SEPARATOR);
+                entityManager.detach(user);
+                exported++;
+            }
+            target.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Выгружено пользователей: {}", exported);
+        return exported;
+    }
+}
@@ -1,17 +1,25 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.user.dto.EmailCheckResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface UserService {
     UserDto createUserDto(UserDto userDto);
 
     UserDto getUserDto(long id);
 
-    Collection<UserDto> getUsersDto();
+    Collection<UserDto> getUsersDto(Pageable page);
+
+    UserPageDto getUsersPage(String cursor, Integer size);
 
     UserDto updateUserDto(UserDto user, Long userId);
 
     void delete(long id);
+
+    EmailCheckResultDto checkEmails(List<String> emails);
 }
@@ -2,19 +2,28 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.exception.EmailIsAlreadyRegisteredException;
+import ru.practicum.shareit.user.dto.EmailCheckResultDto;
+import ru.practicum.shareit.user.dto.UserCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.validator.UserValidatorService;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,15 +31,23 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserValidatorService userValidator;
+    private final UserEmailFilter emailFilter;
 
     @Transactional
     @Override
     public UserDto createUserDto(UserDto userDto) {
+        if (isEmailTaken(userDto.getEmail(), null)) {
+            throw new EmailIsAlreadyRegisteredException("Пользователь с таким email уже зарегистрирован!");
+        }
+        User user;
         try {
-            return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+            user = userRepository.save(UserMapper.toUser(userDto));
         } catch (DataIntegrityViolationException e) {
+            // адрес успели занять между проверкой и вставкой
             throw new EmailIsAlreadyRegisteredException("Пользователь с таким email уже зарегистрирован!");
         }
+        emailFilter.add(user.getEmail());
+        return UserMapper.toUserDto(user);
     }
 
     @Transactional(readOnly = true)
@@ -42,16 +59,27 @@ public class UserServiceImpl implements UserService {
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<UserDto> getUsersDto() {
-        return userRepository.findAll().stream()
+    public Collection<UserDto> getUsersDto(Pageable page) {
+        List<User> users = page.isUnpaged() ? userRepository.findAll(Sort.by("id"))
+                : userRepository.findAllBy(PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by("id")));
+        return users.stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public UserPageDto getUsersPage(String cursor, Integer size) {
+        UserCursor after = UserCursor.decode(cursor);
+        return UserMapper.toUserPageDto(userRepository.findAllByIdGreaterThanOrderByIdAsc(after.getId(),
+                PageRequest.of(0, size + 1)), size);
+    }
+
     @Transactional
     @Override
     public UserDto updateUserDto(UserDto userDto, Long userId) {
-        User user = userValidator.returnUserIfExists(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new DataNotFoundException("Пользователь по id - " + userId + " не найден"));
         if (userDto.getId() == null) {
             throw new DataValidationException("Не передан номер пользователя!");
         }
@@ -59,28 +87,55 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
         }
         if ((userDto.getEmail() != null) && (!userDto.getEmail().equals(user.getEmail()))) {
-            if (checkingTheUserEmail(userDto)) {
+            if (!isEmailTaken(userDto.getEmail(), userId)) {
                 user.setEmail(userDto.getEmail());
+                emailFilter.add(user.getEmail());
             } else {
                 throw new EmailIsAlreadyRegisteredException("Пользователь с E-mail="
                         + user.getEmail() + " уже существует!");
             }
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        UserDto updated = UserMapper.toUserDto(userRepository.save(user));
+        userValidator.invalidate(userId);
+        return updated;
     }
 
     @Transactional
     @Override
     public void delete(long id) {
         userValidator.checkingUserIdAndNotReturn(id);
-            userRepository.deleteById(id);
+        userRepository.deleteById(id);
+        userValidator.invalidate(id);
     }
 
-    private boolean checkingTheUserEmail(UserDto userDto) {
-        List<User> userForEmail = userRepository.findByEmail(userDto.getEmail());
-        return userForEmail
-                .stream()
-                .filter(u -> u.getEmail().equals(userDto.getEmail()))
-                .allMatch(u -> u.getId().equals(userDto.getId()));
+    @Transactional(readOnly = true)
+    @Override
+    public EmailCheckResultDto checkEmails(List<String> emails) {
+        // фильтр знает только адреса, записанные этим экземпляром, поэтому ответ сверяется с базой целиком
+        List<String> distinct = emails.stream()
+                .distinct()
+                .collect(Collectors.toList());
+        Set<String> taken = new HashSet<>(userRepository.findEmailsIn(distinct));
+        Map<Boolean, List<String>> result = emails.stream()
+                .collect(Collectors.partitioningBy(taken::contains));
+        return EmailCheckResultDto.builder()
+                .taken(result.get(true))
+                .available(result.get(false))
+                .build();
+    }
+
+    /**
+     * Проверка по уникальному индексу адресов без загрузки пользователей; адреса, которых нет в фильтре,
+     * считаются свободными. Адрес, занятый другим экземпляром после заполнения фильтра, отсекает уникальный
+     * индекс при записи.
+     */
+    private boolean isEmailTaken(String email, Long userId) {
+        if (email == null || !emailFilter.mightContain(email)) {
+            return false;
+        }
+        if (userId == null) {
+            return userRepository.existsByEmail(email);
+        }
+        return userRepository.existsByEmailAndIdNot(email, userId);
     }
 }
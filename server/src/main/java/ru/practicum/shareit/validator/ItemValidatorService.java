@@ -5,12 +5,16 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 
 @Component
 @RequiredArgsConstructor
 public class ItemValidatorService {
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
     private final ItemRepository itemRepository;
 
     public Item validateItemId(long itemId) {
@@ -26,4 +30,20 @@ public class ItemValidatorService {
             throw new DataValidationException("Комментарий не может быть пустым");
         }
     }
+
+    /**
+     * Проверяет строку импорта по ограничениям таблицы items, чтобы ошибка одной строки не откатывала пакет.
+     */
+    public void validateImportRow(ItemImportRowDto row) {
+        if (row.getAvailable() == null || row.getName() == null || row.getDescription() == null
+                || row.getName().isBlank() || row.getDescription().isBlank()) {
+            throw new DataValidationException("Невозможно использовать пустые поля!");
+        }
+        if (row.getName().length() > MAX_NAME_LENGTH) {
+            throw new DataValidationException("Название длиннее " + MAX_NAME_LENGTH + " символов");
+        }
+        if (row.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new DataValidationException("Описание длиннее " + MAX_DESCRIPTION_LENGTH + " символов");
+        }
+    }
 }
@@ -5,9 +5,20 @@ import ru.practicum.shareit.exception.IncorrectNumberPageException;
 
 @Component
 public class PageValidatorService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     public void checkingPageableParams(Integer from, Integer size) {
         if (size < 0 || from < 0) {
             throw new IncorrectNumberPageException("Размер страницы не может быть меньше нуля");
         }
     }
+
+    public void checkingCursorPageSize(Integer size) {
+        if (size < 1) {
+            throw new IncorrectNumberPageException("Размер страницы должен быть больше нуля");
+        }
+        if (size > MAX_PAGE_SIZE) {
+            throw new IncorrectNumberPageException("Размер страницы не может быть больше " + MAX_PAGE_SIZE);
+        }
+    }
 }
@@ -1,35 +1,127 @@
 package ru.practicum.shareit.validator;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.user.dto.EmailCheckRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
+
+/**
+ * Проверка пользователей перед операциями. Снимки найденных пользователей хранятся в ограниченном кэше
+ * с временем жизни, каждый вызов получает свою копию снимка. Изменение и удаление пользователя сбрасывают
+ * его снимок через {@link #invalidate}. Снимки годятся только для чтения: изменять пользователя нужно
+ * через сущность, загруженную из репозитория.
+ */
 @Component
-@RequiredArgsConstructor
 public class UserValidatorService {
+    private static final int MAX_EMAILS_TO_CHECK = 1000;
+
     private final UserRepository userRepository;
+    private final Cache<Long, UserDto> users;
+
+    public UserValidatorService(UserRepository userRepository,
+                                @Value("${shareit.users.cache.max-size:10000}") long maxSize,
+                                @Value("${shareit.users.cache.ttl:60s}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
 
     public UserDto checkingUserId(Long userId) {
-        return UserMapper.toUserDto(findUserById(userId));
+        return copy(findUserById(userId));
     }
 
+    /**
+     * Проверяет только существование пользователя: при отсутствии снимка в кэше выполняется запрос
+     * existsById без загрузки сущности.
+     */
     public void checkingUserIdAndNotReturn(Long userId) {
-        findUserById(userId);
+        checkNotReserved(userId);
+        if (users.getIfPresent(userId) == null && !userRepository.existsById(userId)) {
+            throw notFound(userId);
+        }
     }
 
+    /**
+     * Проверяет существование пользователя и возвращает ссылку на него без загрузки строки — для полей
+     * внешнего ключа. Обращение к другим полям ссылки загрузит пользователя.
+     */
     public User returnUserIfExists(Long userId) {
-        return findUserById(userId);
+        checkingUserIdAndNotReturn(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void validateEmailCheck(EmailCheckRequestDto request) {
+        if (request.getEmails() == null || request.getEmails().isEmpty()) {
+            throw new DataValidationException("Не переданы адреса для проверки");
+        }
+        if (request.getEmails().size() > MAX_EMAILS_TO_CHECK) {
+            throw new DataValidationException("Можно проверить не больше " + MAX_EMAILS_TO_CHECK + " адресов за запрос");
+        }
+        if (request.getEmails().stream().anyMatch(email -> email == null || email.isBlank())) {
+            throw new DataValidationException("Адрес для проверки не может быть пустым");
+        }
     }
 
-    private User findUserById(Long userId) {
+    /**
+     * Удаляет снимок пользователя. Внутри транзакции удаление выполняется после её фиксации.
+     */
+    public void invalidate(long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.invalidate(userId);
+            }
+        });
+    }
+
+    private UserDto findUserById(Long userId) {
+        checkNotReserved(userId);
+        UserDto user = users.get(userId, id -> userRepository.findById(id)
+                .map(UserMapper::toUserDto)
+                .orElse(null));
+        if (user == null) {
+            throw notFound(userId);
+        }
+        return user;
+    }
+
+    private static void checkNotReserved(Long userId) {
         if (userId == -1) {
             throw new DataNotFoundException("Пользователя под номером : " + userId + " не существует!");
         }
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь по id - " + userId + " не найден"));
+    }
+
+    private static DataNotFoundException notFound(Long userId) {
+        return new DataNotFoundException("Пользователь по id - " + userId + " не найден");
+    }
+
+    private static UserDto copy(UserDto user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
     }
 }
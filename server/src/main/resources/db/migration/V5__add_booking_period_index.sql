@@ -0,0 +1,3 @@
+-- Покрывает поиск свободных вещей по периоду; прежний индекс (item_id, start_date) является его префиксом.
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+DROP INDEX IF EXISTS idx_bookings_item_start;
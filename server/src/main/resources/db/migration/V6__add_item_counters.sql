@@ -0,0 +1,7 @@
+-- Денормализованные счётчики отзывов и подтверждённых бронирований, заполняются по текущим данным.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comments_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS bookings_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE items
+SET comments_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id),
+    bookings_count = (SELECT COUNT(*) FROM bookings b WHERE b.item_id = items.id AND b.status = 'APPROVED');
@@ -10,13 +10,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.DataConflictException;
+import ru.practicum.shareit.exception.IncorrectNumberPageException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validator.PageValidatorService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -84,6 +90,40 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(updatedBooking), result);
     }
 
+    @SneakyThrows
+    @Test
+    void approveBooking_whenBookingChangedConcurrently_thenReturnConflict() {
+        when(bookingService.approveBooking(anyLong(), anyLong(), anyString()))
+                .thenThrow(new DataConflictException("Бронирование под номером: 1 уже изменено другим запросом"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("approved", "true"))
+                .andExpect(status().isConflict());
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings() {
+        List<BookingApprovalDto> approvals = List.of(new BookingApprovalDto(1L, true),
+                new BookingApprovalDto(2L, false));
+        List<BookingApprovalResultDto> results = List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, null, "Бронирования под номером: 2 не существует!"));
+        when(bookingService.approveBookings(1L, approvals)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings/owner/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(approvals))
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
     @SneakyThrows
     @Test
     void getAllBookingsForUser() {
@@ -140,6 +180,61 @@ public class BookingControllerTest {
                 .getAllBookingsByOwnerId(1L, "ALL", PageRequest.of(1, 1));
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingsPageForUser() {
+        BookingPageDto bookingPage = BookingPageDto.builder()
+                .bookings(List.of(BookingDto.builder().id(1L).status(BookingStatus.WAITING).build()))
+                .next("token")
+                .build();
+        when(bookingService.getBookingsPageByUserId(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(bookingPage);
+        mockMvc.perform(get("/bookings")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .param("state", "ALL")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(bookingPage)));
+
+        verify(bookingService, times(1)).getBookingsPageByUserId(1L, "ALL", "", 1);
+        verify(bookingService, never()).getAllBookingsByUserId(anyLong(), anyString(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsPageForOwner() {
+        BookingPageDto bookingPage = BookingPageDto.builder()
+                .bookings(List.of(BookingDto.builder().id(1L).status(BookingStatus.WAITING).build()))
+                .build();
+        when(bookingService.getBookingsPageByOwnerId(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(bookingPage);
+        mockMvc.perform(get("/bookings/owner")
+                        .param("cursor", "token")
+                        .param("state", "ALL")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(bookingPage)));
+
+        verify(bookingService, times(1)).getBookingsPageByOwnerId(1L, "ALL", "token", 10);
+        verify(bookingService, never()).getAllBookingsByOwnerId(anyLong(), anyString(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsPageForOwner_whenSizeTooLarge_thenReturnBadRequest() {
+        doThrow(new IncorrectNumberPageException("Размер страницы не может быть больше 1000"))
+                .when(pageableValidator).checkingCursorPageSize(Integer.MAX_VALUE);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .param("cursor", "")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @SneakyThrows
     @Test
     void getInfoForBooking() {
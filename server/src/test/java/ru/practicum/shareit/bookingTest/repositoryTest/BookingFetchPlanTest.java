@@ -0,0 +1,109 @@
+package ru.practicum.shareit.bookingTest.repositoryTest;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class BookingFetchPlanTest {
+    private static final int PAGE_SIZE = 20;
+
+    private long bookerId;
+    private long ownerId;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void addBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        User booker = entityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        User owner = entityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        bookerId = booker.getId();
+        ownerId = owner.getId();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User otherOwner = entityManager.persist(User.builder().name("owner" + i).email("owner" + i + "@mail.ru")
+                    .build());
+            User otherBooker = entityManager.persist(User.builder().name("booker" + i)
+                    .email("booker" + i + "@mail.ru").build());
+            Item bookedItem = entityManager.persist(Item.builder().name("item" + i).description("desc")
+                    .available(true).owner(otherOwner).build());
+            Item ownedItem = entityManager.persist(Item.builder().name("owned" + i).description("desc")
+                    .available(true).owner(owner).build());
+            entityManager.persist(Booking.builder().item(bookedItem).booker(booker).status(BookingStatus.WAITING)
+                    .start(now.plusDays(i + 1)).end(now.plusDays(i + 2)).build());
+            entityManager.persist(Booking.builder().item(ownedItem).booker(otherBooker)
+                    .status(BookingStatus.WAITING).start(now.plusDays(i + 1)).end(now.plusDays(i + 2)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllByBookerId_whenPageIsMapped_thenStatementCountDoesNotGrowWithPageSize() {
+        long fullPage = countStatements(() -> bookingRepository.findAllByBooker_Id(bookerId, page(PAGE_SIZE)));
+        entityManager.clear();
+        long smallPage = countStatements(() -> bookingRepository.findAllByBooker_Id(bookerId, page(2)));
+
+        assertEquals(1, fullPage);
+        assertEquals(smallPage, fullPage);
+    }
+
+    @Test
+    void findAllByOwnerId_whenPageIsMapped_thenOneStatement() {
+        assertEquals(countStatements(() -> bookingRepository.findAllByOwnerId(ownerId, page(PAGE_SIZE))), 1);
+    }
+
+    @Test
+    void findAllByBookerIdAndFutureStatus_whenPageIsMapped_thenOneStatement() {
+        assertEquals(countStatements(() -> bookingRepository.findAllByBookerIdAndFutureStatus(bookerId,
+                LocalDateTime.now(), page(PAGE_SIZE))), 1);
+    }
+
+    private long countStatements(Supplier<List<Booking>> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDto> bookings = query.get().stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        bookings.forEach(b -> assertNotNull(b.getItem().getOwner().getName()));
+
+        assertFalse(bookings.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Pageable page(int size) {
+        return PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start"));
+    }
+}
@@ -5,10 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -18,7 +22,11 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +38,7 @@ public class BookingRepositoryTest {
    private long bookerId;
    private long ownerId;
    private long itemId;
+   private long passedBookingId;
 
     @Autowired
    private UserRepository userRepository;
@@ -40,6 +49,12 @@ public class BookingRepositoryTest {
     @Autowired
    private ItemRepository itemRepository;
 
+    @Autowired
+   private TestEntityManager entityManager;
+
+    @Autowired
+   private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     public void addRequests() {
         User booker = User.builder()
@@ -64,62 +79,89 @@ public class BookingRepositoryTest {
                 .build());
         itemId = item.getId();
 
+        // схема требует вещь, бронирующего и статус у каждого бронирования: бронирования только пользователя
+        // booker оформлены на вещь третьего пользователя, а бронирования только вещи owner — от его имени
+        User other = userRepository.save(User.builder()
+                .email("mail3@mail.ru")
+                .name("name3")
+                .build());
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("item2")
+                .description("other")
+                .owner(other)
+                .available(true)
+                .build());
+
         //booker_pastStatus
         bookingRepository.save(Booking.builder()
+                .item(otherItem)
                 .booker(booker)
                 .end(LocalDateTime.now().minusDays(1))
                 .start(LocalDateTime.now().minusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //booker_futureStatus
         bookingRepository.save(Booking.builder()
+                .item(otherItem)
                 .booker(booker)
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //booker_currentStatus
         bookingRepository.save(Booking.builder()
+                .item(otherItem)
                 .booker(booker)
                 .start(LocalDateTime.now().minusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //booker_statusRejected_andPastStatus
         bookingRepository.save(Booking.builder()
+                .item(otherItem)
                 .booker(booker)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now())
                 .status(BookingStatus.REJECTED)
                 .build());
         //booker_statusWaiting_andPastStatus_andOwnerBooking_PastOwnerStatus
-        bookingRepository.save(Booking.builder()
+        passedBookingId = bookingRepository.save(Booking.builder()
                 .item(item)
                 .booker(booker)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now())
                 .status(BookingStatus.WAITING)
-                .build());
+                .build()).getId();
 
 
         //owner_pastStatus
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .booker(other)
                 .end(LocalDateTime.now().minusDays(1))
                 .start(LocalDateTime.now().minusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //owner_futureStatus
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .booker(other)
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //owner_currentStatus
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .booker(other)
                 .start(LocalDateTime.now().minusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
                 .build());
         //owner_statusRejected_andPastStatus
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .booker(other)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now())
                 .status(BookingStatus.REJECTED)
@@ -127,6 +169,7 @@ public class BookingRepositoryTest {
         //owner_statusWaiting_andPastStatus
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .booker(other)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now())
                 .status(BookingStatus.WAITING)
@@ -152,19 +195,18 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByUserIdAndItemIdAndEndDateIsPassed_whenBookerHasOneItemWithEndDatePassed_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(bookerId,
-                itemId, LocalDateTime.now());
-
-        assertEquals(ownerBookings.size(), 1);
-        assertEquals(ownerBookings.get(0).getId(),5);
-        assertEquals(ownerBookings.get(0).getBooker().getName(), "name1");
-        assertEquals(ownerBookings.get(0).getBooker().getEmail(), "mail1@mail.ru");
+    void existsByBookerIdAndItemIdAndEndBefore_whenBookerHasFinishedBooking_thenReturnTrueOnlyForThatItem() {
+        assertTrue(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(bookerId, itemId,
+                LocalDateTime.now()));
+        assertFalse(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(ownerId, itemId,
+                LocalDateTime.now()));
+        assertFalse(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(bookerId, itemId,
+                LocalDateTime.now().minusYears(10)));
     }
 
     @Test
-    void findAllByOwnerItems_whenOwnerHasSixBookings_returnListOfSixBookings() {
-        List<Booking> itemsBookings = bookingRepository.findAllByOwnerItems(List.of(itemId), PAGE_FOR_BOOKINGS);
+    void findAllByOwnerId_whenOwnerHasSixBookings_returnListOfSixBookings() {
+        List<Booking> itemsBookings = bookingRepository.findAllByOwnerId(ownerId, PAGE_FOR_BOOKINGS);
 
         assertEquals(itemsBookings.size(), 6);
         assertEquals(itemsBookings.get(0).getItem().getName(), "item1");
@@ -172,8 +214,15 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItemsAndWaitingStatus_whenOwnerHasTwoBookingWithWaitingStatus_thenReturnListOfTwoBookings() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndWaitingStatus(List.of(itemId),
+    void findAllByOwnerId_whenUserHasNoItems_thenReturnEmptyList() {
+        List<Booking> itemsBookings = bookingRepository.findAllByOwnerId(bookerId, PAGE_FOR_BOOKINGS);
+
+        assertTrue(itemsBookings.isEmpty());
+    }
+
+    @Test
+    void findAllByOwnerIdAndWaitingStatus_whenOwnerHasTwoBookingWithWaitingStatus_thenReturnListOfTwoBookings() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerIdAndWaitingStatus(ownerId,
                 BookingStatus.WAITING, PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 2);
@@ -182,8 +231,8 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItemsAndRejectedStatus_whenOwnerHasOneBookingWithRejectedStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndRejectedStatus(List.of(itemId),
+    void findAllByOwnerIdAndRejectedStatus_whenOwnerHasOneBookingWithRejectedStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerIdAndRejectedStatus(ownerId,
                 List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
@@ -193,8 +242,8 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItemsAndCurrentStatus_whenOwnerHasOneBookingWithCurrentStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndCurrentStatus(List.of(itemId),
+    void findAllByOwnerIdAndCurrentStatus_whenOwnerHasOneBookingWithCurrentStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerIdAndCurrentStatus(ownerId,
                 LocalDateTime.now(), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
@@ -203,8 +252,8 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItemsAndFutureStatus_whenOwnerHasOneBookingWithFutureStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndFutureStatus(List.of(itemId),
+    void findAllByOwnerIdAndFutureStatus_whenOwnerHasOneBookingWithFutureStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerIdAndFutureStatus(ownerId,
                 LocalDateTime.now(), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
@@ -213,8 +262,8 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItemsAndPastStatus_whenOwnerHasFourBookingWithPastStatus_thenReturnListOfFourBookings() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndPastStatus(List.of(itemId),
+    void findAllByOwnerIdAndPastStatus_whenOwnerHasFourBookingWithPastStatus_thenReturnListOfFourBookings() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerIdAndPastStatus(ownerId,
                 LocalDateTime.now(), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 4);
@@ -272,6 +321,196 @@ public class BookingRepositoryTest {
         assertEquals(pastBookerBookings.get(2).getBooker().getEmail(), "mail1@mail.ru");
     }
 
+    @Test
+    void findAllByBookerIdKeyset_whenWalkingPagesOfTwo_thenReturnSameOrderAsOffsetPagination() {
+        entityManager.clear();
+        Pageable keysetPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id"));
+        List<Booking> expected = bookingRepository.findAllByBooker_Id(bookerId,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
+        List<Booking> walked = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(9999, 12, 31, 0, 0);
+        long id = Long.MAX_VALUE;
+        List<Booking> page;
+        do {
+            page = bookingRepository.findAllByBookerIdKeyset(bookerId, start, id, keysetPage);
+            walked.addAll(page);
+            if (!page.isEmpty()) {
+                start = page.get(page.size() - 1).getStart();
+                id = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        assertEquals(walked.size(), 5);
+        assertEquals(walked, expected);
+    }
+
+    @Test
+    void findAllByOwnerIdAndPastStatusKeyset_whenCursorIsAfterFirstBooking_thenSkipIt() {
+        entityManager.clear();
+        Pageable keysetPage = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+        List<Booking> allPast = bookingRepository.findAllByOwnerIdAndPastStatusKeyset(ownerId, LocalDateTime.now(),
+                LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE, keysetPage);
+        Booking first = allPast.get(0);
+
+        List<Booking> rest = bookingRepository.findAllByOwnerIdAndPastStatusKeyset(ownerId, LocalDateTime.now(),
+                first.getStart(), first.getId(), keysetPage);
+
+        assertEquals(allPast.size(), 4);
+        assertEquals(rest, allPast.subList(1, 4));
+    }
+
+    @Test
+    void bookerListing_whenFilteredByBookerAndStart_thenPlanUsesBookerStartIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM bookings WHERE booker_id = " + bookerId +
+                " AND start_date > CURRENT_TIMESTAMP ORDER BY start_date DESC", String.class);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_BOOKER_START"), plan);
+    }
+
+    @Test
+    void itemBookings_whenFilteredByItemAndPeriod_thenPlanUsesItemStartEndIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM bookings WHERE item_id = " + itemId +
+                " AND start_date < CURRENT_TIMESTAMP AND end_date > CURRENT_TIMESTAMP", String.class);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_ITEM_START_END"), plan);
+    }
+
+    @Test
+    void itemBookings_whenFilteredByItemAndStatus_thenPlanUsesItemStatusIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM bookings WHERE item_id = " + itemId +
+                " AND status = 'WAITING'", String.class);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_ITEM_STATUS"), plan);
+    }
+
+    @Test
+    void findLastAndNextBookingsByItemIds_whenItemHasHistory_thenReturnOnlyClosestActiveBookings() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("item2")
+                .description("desc")
+                .owner(userRepository.findById(ownerId).orElseThrow())
+                .available(true)
+                .build());
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.minusDays(5)).end(now.minusDays(4)).build());
+        Booking last = bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.minusDays(3)).end(now.minusDays(2)).build());
+        bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.REJECTED)
+                .start(now.minusDays(1)).end(now.plusDays(1)).build());
+        Booking next = bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.WAITING)
+                .start(now.plusDays(2)).end(now.plusDays(3)).build());
+        bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.plusDays(4)).end(now.plusDays(5)).build());
+        List<BookingStatus> excluded = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(otherItem.getId()),
+                excluded, now);
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(otherItem.getId()),
+                excluded, now);
+
+        assertEquals(lastBookings, List.of(last));
+        assertEquals(nextBookings, List.of(next));
+        assertEquals(Set.copyOf(bookingRepository.findLastAndNextByItemId(otherItem.getId(), excluded, now)),
+                Set.of(last, next));
+    }
+
+    @Test
+    void findIntervalsByStatusAndEndAfter_whenApprovedBookingsExist_thenReturnOnlyNotFinished() {
+        // выборка идёт по всем вещам, поэтому подтверждённые бронирования из общего набора убираются
+        bookingRepository.deleteAll();
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        bookingRepository.save(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.minusDays(3)).end(now.minusDays(2)).build());
+        Booking active = bookingRepository.save(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                .start(now.plusDays(4)).end(now.plusDays(5)).build());
+
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusAndEndAfter(BookingStatus.APPROVED,
+                now);
+
+        assertEquals(intervals.size(), 1);
+        assertEquals(intervals.get(0).getId(), active.getId());
+        assertEquals(intervals.get(0).getItemId(), itemId);
+    }
+
+    @Test
+    void findIntervalsByItemIdBetween_whenBookingsOverlapPeriod_thenReturnThemOrderedByStart() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("item2")
+                .description("desc")
+                .owner(userRepository.findById(ownerId).orElseThrow())
+                .available(true)
+                .build());
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        LocalDateTime from = LocalDateTime.of(2030, 5, 1, 0, 0);
+        Booking later = bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.WAITING)
+                .start(from.plusDays(5)).end(from.plusDays(9)).build());
+        Booking earlier = bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.APPROVED)
+                .start(from.minusDays(1)).end(from.plusDays(1)).build());
+        bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.REJECTED)
+                .start(from.plusDays(2)).end(from.plusDays(3)).build());
+        bookingRepository.save(Booking.builder().item(otherItem).booker(booker).status(BookingStatus.APPROVED)
+                .start(from.plusDays(7)).end(from.plusDays(8)).build());
+
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByItemIdBetween(otherItem.getId(),
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING), from, from.plusDays(7));
+
+        assertEquals(intervals.size(), 2);
+        assertEquals(intervals.get(0).getId(), earlier.getId());
+        assertEquals(intervals.get(1).getId(), later.getId());
+    }
+
+    @Test
+    void flush_whenBookingVersionChangedConcurrently_thenThrowOptimisticLockingFailure() {
+        Booking booking = bookingRepository.findById(passedBookingId).orElseThrow();
+        long version = booking.getVersion();
+        jdbcTemplate.update("UPDATE bookings SET version = version + 1 WHERE id = ?", passedBookingId);
+
+        booking.setStatus(BookingStatus.APPROVED);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingRepository.flush());
+        entityManager.clear();
+        assertEquals(version + 1, jdbcTemplate.queryForObject("SELECT version FROM bookings WHERE id = ?",
+                Long.class, passedBookingId));
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(passedBookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void flush_whenStatusChangedOnManagedBooking_thenVersionIsIncremented() {
+        Booking booking = bookingRepository.findById(passedBookingId).orElseThrow();
+        long version = booking.getVersion();
+
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.flush();
+
+        assertEquals(version + 1, booking.getVersion());
+    }
+
+    @Test
+    void updateStatusByIdIn_whenSomeBookingsChangedSinceRead_thenUpdateOnlyOthers() {
+        LocalDateTime now = LocalDateTime.now();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        Booking rejected = bookingRepository.save(Booking.builder().item(item).booker(booker)
+                .status(BookingStatus.REJECTED).start(now.plusDays(1)).end(now.plusDays(2)).build());
+        List<Long> ids = List.of(passedBookingId, rejected.getId());
+
+        int updated = bookingRepository.updateStatusByIdIn(ids, BookingStatus.WAITING, BookingStatus.APPROVED);
+        entityManager.clear();
+
+        assertEquals(updated, 1);
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(ids);
+        Map<Long, Booking> byId = bookings.stream().collect(Collectors.toMap(Booking::getId, b -> b));
+        assertEquals(byId.get(passedBookingId).getStatus(), BookingStatus.APPROVED);
+        assertEquals(byId.get(passedBookingId).getVersion(), 1);
+        assertEquals(byId.get(passedBookingId).getBooker().getId(), bookerId);
+        assertEquals(byId.get(rejected.getId()).getStatus(), BookingStatus.REJECTED);
+        assertEquals(byId.get(rejected.getId()).getVersion(), 0);
+    }
+
     @AfterEach
     public void deleteItems() {
         bookingRepository.deleteAll();
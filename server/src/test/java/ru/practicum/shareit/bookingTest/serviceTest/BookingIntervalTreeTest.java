@@ -0,0 +1,85 @@
+package ru.practicum.shareit.bookingTest.serviceTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.service.BookingIntervalTree;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    public void fillData() {
+        tree = new BookingIntervalTree();
+        tree.insert(1L, BASE.plusHours(10), BASE.plusHours(12));
+        tree.insert(2L, BASE.plusHours(20), BASE.plusHours(30));
+    }
+
+    @Test
+    void overlaps_whenIntervalsIntersect_thenReturnTrue() {
+        assertTrue(tree.overlaps(BASE.plusHours(11), BASE.plusHours(13)));
+        assertTrue(tree.overlaps(BASE.plusHours(21), BASE.plusHours(22)));
+        assertTrue(tree.overlaps(BASE, BASE.plusHours(40)));
+    }
+
+    @Test
+    void overlaps_whenIntervalsOnlyTouch_thenReturnFalse() {
+        assertFalse(tree.overlaps(BASE.plusHours(12), BASE.plusHours(20)));
+        assertFalse(tree.overlaps(BASE, BASE.plusHours(10)));
+        assertFalse(tree.overlaps(BASE.plusHours(30), BASE.plusHours(31)));
+    }
+
+    @Test
+    void remove_whenIntervalRemoved_thenItIsFree() {
+        tree.remove(1L, BASE.plusHours(10));
+
+        assertFalse(tree.overlaps(BASE.plusHours(11), BASE.plusHours(13)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void removeEndedBy_whenSomeIntervalsEnded_thenRemoveOnlyThem() {
+        tree.insert(3L, BASE.plusHours(5), BASE.plusHours(25));
+
+        assertEquals(1, tree.removeEndedBy(BASE.plusHours(12)));
+
+        assertEquals(2, tree.size());
+        assertFalse(tree.contains(1L, BASE.plusHours(10)));
+        assertTrue(tree.overlaps(BASE.plusHours(22), BASE.plusHours(23)));
+        assertTrue(tree.overlaps(BASE.plusHours(6), BASE.plusHours(7)));
+    }
+
+    @Test
+    void overlaps_whenRandomIntervals_thenMatchesLinearScan() {
+        Random random = new Random(42);
+        BookingIntervalTree randomTree = new BookingIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(200);
+            intervals.add(new long[]{id, start, end});
+            randomTree.insert(id, BASE.plusMinutes(start), BASE.plusMinutes(end));
+        }
+        for (int i = 0; i < 200; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            randomTree.remove(removed[0], BASE.plusMinutes(removed[1]));
+        }
+        assertEquals(intervals.size(), randomTree.size());
+
+        for (int i = 0; i < 2_000; i++) {
+            long from = random.nextInt(10_300);
+            long to = from + 1 + random.nextInt(100);
+            boolean expected = intervals.stream().anyMatch(x -> x[1] < to && x[2] > from);
+
+            assertEquals(expected, randomTree.overlaps(BASE.plusMinutes(from), BASE.plusMinutes(to)));
+        }
+    }
+}
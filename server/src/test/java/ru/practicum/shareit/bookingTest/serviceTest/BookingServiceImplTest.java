@@ -7,18 +7,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.service.ItemAvailabilityIndex.Reservation;
+import ru.practicum.shareit.exception.DataConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCalendarCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validator.BookingValidatorService;
@@ -27,6 +36,11 @@ import ru.practicum.shareit.validator.UserValidatorService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,9 +57,6 @@ public class BookingServiceImplTest {
     private Booking booking;
     private UserDto userDto;
 
-    @Mock
-   private ItemRepository itemRepository;
-
     @Mock
    private BookingRepository bookingRepository;
 
@@ -58,6 +69,15 @@ public class BookingServiceImplTest {
     @Mock
    private BookingValidatorService bookingValidator;
 
+    @Mock
+   private ItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+   private ItemCalendarCache calendarCache;
+
+    @Mock
+   private ItemRepository itemRepository;
+
     @InjectMocks
    private BookingServiceImpl bookingService;
 
@@ -93,11 +113,29 @@ public class BookingServiceImplTest {
     void addBooking_whenUserAndItemExistAndAllDataIsCorrect_thenReturnBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
         when(itemValidator.validateItemId(anyLong())).thenReturn(ownerItem);
+        when(availabilityIndex.isFree(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingDto expectedBooking = bookingService.addBooking(toBookingDto(booking), 2L);
 
         assertEquals(expectedBooking, toBookingDto(booking));
+        verify(calendarCache).invalidate(1L);
+    }
+
+    @Test
+    void addBooking_whenDatesOverlapApprovedBooking_thenThrowIncorrectDataException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(itemValidator.validateItemId(anyLong())).thenReturn(ownerItem);
+        when(availabilityIndex.isFree(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(false);
+
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> bookingService.addBooking(toBookingDto(booking), 2L));
+
+        assertEquals(exception.getMessage(), "Вещь уже забронирована на эти даты!");
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(calendarCache);
     }
 
     @Test
@@ -177,11 +215,166 @@ public class BookingServiceImplTest {
     void approveBooking_whenUserAndItemExistAndAllDataCorrect_thenReturnBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
         when(bookingValidator.validateBooking(anyLong())).thenReturn(booking);
+        when(availabilityIndex.reserve(1L, 1L, booking.getStart(), booking.getEnd())).thenReturn(Reservation.RESERVED);
 
         BookingDto actualBooking = bookingService.approveBooking(1L, 1L, "true");
 
         assertEquals(actualBooking.getId(), booking.getId());
         assertEquals(actualBooking.getStart(), booking.getStart());
+        verify(calendarCache).invalidate(1L);
+        verify(itemRepository).addToBookingsCount(1L, 1L);
+    }
+
+    @Test
+    void approveBooking_whenDatesOverlapApprovedBooking_thenThrowIncorrectDataException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingValidator.validateBooking(anyLong())).thenReturn(booking);
+        when(availabilityIndex.reserve(1L, 1L, booking.getStart(), booking.getEnd())).thenReturn(Reservation.BUSY);
+
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> bookingService.approveBooking(1L, 1L, "true"));
+
+        assertEquals(exception.getMessage(), "Вещь уже забронирована на эти даты!");
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(calendarCache);
+    }
+
+    @Test
+    void approveBooking_whenApprovedBookingIsRejected_thenReleaseInterval() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingValidator.validateBooking(anyLong())).thenReturn(booking);
+        booking.setStatus(BookingStatus.APPROVED);
+
+        BookingDto actualBooking = bookingService.approveBooking(1L, 1L, "false");
+
+        assertEquals(actualBooking.getStatus(), BookingStatus.REJECTED);
+        verify(availabilityIndex).release(1L, 1L, booking.getStart(), booking.getEnd());
+        verify(itemRepository).addToBookingsCount(1L, -1L);
+    }
+
+    @Test
+    void approveBooking_whenBookingChangedConcurrently_thenThrowDataConflictException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingValidator.validateBooking(anyLong())).thenReturn(booking);
+        when(availabilityIndex.reserve(1L, 1L, booking.getStart(), booking.getEnd())).thenReturn(Reservation.RESERVED);
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L)).when(bookingRepository).flush();
+
+        DataConflictException exception = assertThrows(DataConflictException.class,
+                () -> bookingService.approveBooking(1L, 1L, "true"));
+
+        assertEquals(exception.getMessage(), "Бронирование под номером: 1 уже изменено другим запросом");
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void approveBooking_whenTwoApprovalsRace_thenLoserThrowsDataConflictException() throws Exception {
+        ItemAvailabilityIndex realIndex = new ItemAvailabilityIndex(bookingRepository);
+        BookingServiceImpl service = new BookingServiceImpl(bookingRepository, userValidator, itemValidator,
+                bookingValidator, realIndex, calendarCache, itemRepository);
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        // каждый запрос читает свою копию бронирования в статусе WAITING
+        when(bookingValidator.validateBooking(1L)).thenAnswer(invocation -> Booking.builder()
+                .id(1L)
+                .status(BookingStatus.WAITING)
+                .item(ownerItem)
+                .booker(new User())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build());
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Callable<Object> approval = () -> {
+            barrier.await();
+            try {
+                return service.approveBooking(1L, 1L, "true");
+            } catch (RuntimeException e) {
+                return e;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> results = executor.invokeAll(List.of(approval, approval));
+            List<Object> outcomes = List.of(results.get(0).get(), results.get(1).get());
+
+            assertEquals(1, outcomes.stream().filter(BookingDto.class::isInstance).count());
+            DataConflictException exception = (DataConflictException) outcomes.stream()
+                    .filter(DataConflictException.class::isInstance)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("Бронирование под номером: 1 уже изменено другим запросом", exception.getMessage());
+            verify(itemRepository).addToBookingsCount(1L, 1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approveBookings_whenBatchIsMixed_thenReturnResultPerBookingAndUpdateOncePerOutcome() {
+        Booking foreignBooking = Booking.builder()
+                .id(2L)
+                .status(BookingStatus.WAITING)
+                .item(Item.builder().id(2L).owner(User.builder().id(3L).build()).build())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+        Booking approvedBooking = Booking.builder()
+                .id(3L)
+                .status(BookingStatus.APPROVED)
+                .item(ownerItem)
+                .start(booking.getStart().plusDays(5))
+                .end(booking.getEnd().plusDays(5))
+                .build();
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(booking, foreignBooking, approvedBooking));
+        when(availabilityIndex.reserve(1L, 1L, booking.getStart(), booking.getEnd())).thenReturn(Reservation.RESERVED);
+        when(bookingRepository.updateStatusByIdIn(List.of(1L), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.updateStatusByIdIn(List.of(3L), BookingStatus.APPROVED, BookingStatus.REJECTED))
+                .thenReturn(1);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(
+                new BookingApprovalDto(1L, true),
+                new BookingApprovalDto(2L, true),
+                new BookingApprovalDto(3L, false),
+                new BookingApprovalDto(4L, false)));
+
+        assertEquals(results, List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, null, "Пользователь под номером: 1 не является владельцем!"),
+                new BookingApprovalResultDto(3L, BookingStatus.REJECTED, null),
+                new BookingApprovalResultDto(4L, null, "Бронирования под номером: 4 не существует!")));
+        verify(availabilityIndex).release(1L, 3L, approvedBooking.getStart(), approvedBooking.getEnd());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(calendarCache).invalidate(1L);
+        verify(calendarCache, never()).invalidate(2L);
+        verify(itemRepository, never()).addToBookingsCount(anyLong(), anyLong());
+    }
+
+    @Test
+    void approveBookings_whenBookingChangedConcurrently_thenThrowDataConflictException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(1L))).thenReturn(List.of(booking));
+        when(bookingRepository.updateStatusByIdIn(List.of(1L), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        DataConflictException exception = assertThrows(DataConflictException.class,
+                () -> bookingService.approveBookings(1L, List.of(new BookingApprovalDto(1L, false))));
+
+        assertEquals(exception.getMessage(), "Часть бронирований уже изменена другим запросом");
+    }
+
+    @Test
+    void approveBookings_whenBookingAlreadyRejected_thenReturnRejectedWithoutUpdate() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userValidator.checkingUserId(anyLong())).thenReturn(toUserDto(owner));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(1L))).thenReturn(List.of(booking));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L,
+                List.of(new BookingApprovalDto(1L, false)));
+
+        assertEquals(results, List.of(new BookingApprovalResultDto(1L, BookingStatus.REJECTED, null)));
+        verify(bookingRepository, never()).updateStatusByIdIn(anyList(), any(), any());
+        verify(calendarCache, never()).invalidate(anyLong());
     }
 
     @Test
@@ -434,141 +627,148 @@ public class BookingServiceImplTest {
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExist_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndCurrentStatus(anyList(), any(LocalDateTime.class),
+        when(bookingRepository.findAllByOwnerIdAndCurrentStatus(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "CURRENT",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndWaitingStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndFutureStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndRejectedStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndPastStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository, times(0)).findAllByOwnerId(any(), any());
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistWaiting_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndWaitingStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingRepository.findAllByOwnerIdAndWaitingStatus(anyLong(), any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "WAITING",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndCurrentStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndFutureStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndRejectedStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndPastStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository, times(0)).findAllByOwnerId(any(), any());
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistFuture_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndFutureStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingRepository.findAllByOwnerIdAndFutureStatus(anyLong(), any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "FUTURE",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndCurrentStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndWaitingStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndRejectedStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndPastStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository, times(0)).findAllByOwnerId(any(), any());
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistRejected_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndRejectedStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingRepository.findAllByOwnerIdAndRejectedStatus(anyLong(), any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "REJECTED",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndCurrentStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndWaitingStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndFutureStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndPastStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository, times(0)).findAllByOwnerId(any(), any());
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistPast_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndPastStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingRepository.findAllByOwnerIdAndPastStatus(anyLong(), any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "PAST",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndCurrentStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndWaitingStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndFutureStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndRejectedStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository, times(0)).findAllByOwnerId(any(), any());
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistAll_thenReturnListOfBooking() {
         when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
         doNothing().when(bookingValidator).checkingBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItems(any(), any()))
+        when(bookingRepository.findAllByOwnerId(any(), any()))
                 .thenReturn(List.of(booking));
 
         List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "ALL",
                 PAGE_BOOKINGS);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndCurrentStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndWaitingStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndFutureStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndRejectedStatus(any(), any(),
                 any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(),
+        verify(bookingRepository, times(0)).findAllByOwnerIdAndPastStatus(any(), any(),
                 any());
     }
 
+    @Test
+    void getAllBookingsByOwnerId_whenOwnerHasNoItems_thenReturnEmptyList() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
+        doNothing().when(bookingValidator).checkingBookingState(anyString());
+        when(bookingRepository.findAllByOwnerId(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "ALL",
+                PAGE_BOOKINGS);
+
+        assertTrue(actualBookings.isEmpty());
+    }
+
     @Test
     void getAllBookingsByOwnerId_whenUserNotExists_thenThrowEntityNotFoundException() {
         doThrow(new DataNotFoundException("Пользователь не найден!"))
@@ -591,4 +791,51 @@ public class BookingServiceImplTest {
 
         assertEquals(exception.getMessage(), "state");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsPageByUserId_whenMoreBookingsThanSize_thenReturnPageWithNextCursor() {
+        Booking older = Booking.builder()
+                .id(2L)
+                .status(BookingStatus.WAITING)
+                .start(booking.getStart().minusDays(1))
+                .end(booking.getEnd())
+                .build();
+        when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
+        doNothing().when(bookingValidator).checkingBookingState(anyString());
+        when(bookingRepository.findAllByBookerIdKeyset(anyLong(), any(LocalDateTime.class), anyLong(),
+                any(Pageable.class))).thenReturn(List.of(booking, older));
+
+        BookingPageDto actualPage = bookingService.getBookingsPageByUserId(1L, "ALL", "", 1);
+
+        assertEquals(actualPage.getBookings().size(), 1);
+        assertEquals(actualPage.getBookings().get(0).getId(), booking.getId());
+        assertEquals(BookingCursor.decode(actualPage.getNext()), BookingCursor.after(booking));
+        verify(bookingRepository, times(1)).findAllByBookerIdKeyset(1L, BookingCursor.first().getStart(),
+                Long.MAX_VALUE, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id")));
+    }
+
+    @Test
+    void getBookingsPageByOwnerId_whenLastPage_thenReturnPageWithoutNextCursor() {
+        String cursor = BookingCursor.after(booking).encode();
+        when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
+        doNothing().when(bookingValidator).checkingBookingState(anyString());
+        when(bookingRepository.findAllByOwnerIdAndWaitingStatusKeyset(anyLong(), any(), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+
+        BookingPageDto actualPage = bookingService.getBookingsPageByOwnerId(1L, "WAITING", cursor, 10);
+
+        assertEquals(actualPage.getBookings().size(), 1);
+        assertNull(actualPage.getNext());
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndWaitingStatusKeyset(eq(1L),
+                eq(BookingStatus.WAITING), eq(booking.getStart()), eq(booking.getId()), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingsPageByUserId_whenCursorIsMalformed_thenThrowDataValidationException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(userDto);
+        doNothing().when(bookingValidator).checkingBookingState(anyString());
+
+        assertThrows(DataValidationException.class,
+                () -> bookingService.getBookingsPageByUserId(1L, "ALL", "not-a-cursor", 10));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.bookingTest.serviceTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.service.ItemAvailabilityIndex.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Test
+    void rebuild_whenApprovedBookingsExist_thenTheirIntervalsAreBusy() {
+        when(bookingRepository.findIntervalsByStatusAndEndAfter(eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(1L, 1L, BASE, BASE.plusDays(2))));
+
+        availabilityIndex.rebuild();
+
+        assertFalse(availabilityIndex.isFree(1L, BASE.plusDays(1), BASE.plusDays(3)));
+        assertTrue(availabilityIndex.isFree(1L, BASE.plusDays(2), BASE.plusDays(3)));
+        assertTrue(availabilityIndex.isFree(2L, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    void reserve_whenIntervalIsBusy_thenReturnBusy() {
+        assertEquals(Reservation.RESERVED, availabilityIndex.reserve(1L, 1L, BASE, BASE.plusDays(2)));
+
+        assertEquals(Reservation.BUSY, availabilityIndex.reserve(1L, 2L, BASE.plusDays(1), BASE.plusDays(3)));
+        assertEquals(Reservation.RESERVED, availabilityIndex.reserve(1L, 3L, BASE.plusDays(2), BASE.plusDays(3)));
+    }
+
+    @Test
+    void reserve_whenSameBookingReservedTwice_thenReturnAlreadyReserved() {
+        availabilityIndex.reserve(1L, 1L, BASE, BASE.plusDays(2));
+
+        assertEquals(Reservation.ALREADY_RESERVED, availabilityIndex.reserve(1L, 1L, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    void evictEnded_whenIntervalEnded_thenRemoveItAndKeepActive() {
+        LocalDateTime past = LocalDateTime.now().minusDays(3);
+        availabilityIndex.reserve(1L, 1L, past, past.plusDays(1));
+        availabilityIndex.reserve(1L, 2L, BASE, BASE.plusDays(2));
+
+        assertEquals(1, availabilityIndex.evictEnded());
+
+        assertTrue(availabilityIndex.isFree(1L, past, past.plusDays(1)));
+        assertFalse(availabilityIndex.isFree(1L, BASE, BASE.plusDays(1)));
+    }
+
+    @Test
+    void release_whenIntervalReleased_thenItemIsFree() {
+        availabilityIndex.reserve(1L, 1L, BASE, BASE.plusDays(2));
+
+        availabilityIndex.release(1L, 1L, BASE, BASE.plusDays(2));
+
+        assertTrue(availabilityIndex.isFree(1L, BASE, BASE.plusDays(2)));
+    }
+
+    private BookingInterval interval(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingInterval.class,
+                Map.of("id", id, "itemId", itemId, "start", start, "end", end));
+    }
+}
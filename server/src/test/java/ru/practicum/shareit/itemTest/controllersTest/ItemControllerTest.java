@@ -7,14 +7,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.IncorrectNumberPageException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validator.PageValidatorService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +48,9 @@ public class ItemControllerTest {
     @MockBean
     private PageValidatorService pageValidator;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
     @Autowired
     private MockMvc mvc;
 
@@ -62,6 +76,24 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getSuggestions() {
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto("drill", 3),
+                new ItemSuggestionDto("driver", 1));
+        when(itemService.getSuggestions("dr", 5)).thenReturn(suggestions);
+
+        String result = mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "dr")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(suggestions), result);
+    }
+
     @SneakyThrows
     @Test
     void updateItem() {
@@ -138,6 +170,83 @@ public class ItemControllerTest {
         verify(itemService, times(1)).getItemsDtoBySearch(anyString(), any(Pageable.class));
     }
 
+    @SneakyThrows
+    @Test
+    void getComments() {
+        CommentPageDto page = CommentPageDto.builder()
+                .comments(List.of(CommentDto.builder().id(1L).text("text").authorName("name").build()))
+                .next("cursor")
+                .build();
+        when(itemService.getCommentsPage(1L, "after", 5)).thenReturn(page);
+
+        String result = mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("after", "after")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(page), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenLimitIsZero_thenReturnBadRequest() {
+        doThrow(new IncorrectNumberPageException("Размер страницы должен быть больше нуля"))
+                .when(pageValidator).checkingCursorPageSize(0);
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getCommentsPage(anyLong(), anyString(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getFreeIntervals() {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 1, 0, 0);
+        List<FreeIntervalDto> intervals = List.of(new FreeIntervalDto(from, from.plusDays(1)));
+        when(itemService.getFreeIntervals(1L, from, from.plusDays(7))).thenReturn(intervals);
+
+        String result = mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-05-01T00:00:00")
+                        .param("to", "2030-05-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(intervals), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsBySearch_whenPeriodGiven_thenSearchFreeItems() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("start", "2030-05-03T12:00:00")
+                        .param("end", "2030-05-05T12:00"))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1)).getItemsDtoBySearchFreeBetween("text",
+                LocalDateTime.of(2030, 5, 3, 12, 0), LocalDateTime.of(2030, 5, 5, 12, 0), PageRequest.of(0, 10));
+        verify(itemService, never()).getItemsDtoBySearch(anyString(), any(Pageable.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsBySearch_whenFuzzy_thenUseFuzzySearch() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1)).getItemsDtoByFuzzySearch(anyString(), any(Pageable.class));
+        verify(itemService, never()).getItemsDtoBySearch(anyString(), any(Pageable.class));
+    }
+
 
     @SneakyThrows
     @Test
@@ -158,4 +267,26 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(commentToCreate), result);
 
     }
+
+    @SneakyThrows
+    @Test
+    void importItems() {
+        String rows = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n";
+        ItemImportResultDto report = ItemImportResultDto.builder()
+                .imported(1)
+                .errors(List.of())
+                .itemsPerSecond(1000)
+                .build();
+        when(itemImporter.importItems(eq(1L), any(InputStream.class))).thenReturn(report);
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/x-ndjson")
+                        .header("X-Sharer-User-Id", "1")
+                        .content(rows))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(0)));
+
+        verify(itemImporter).importItems(eq(1L), any(InputStream.class));
+    }
 }
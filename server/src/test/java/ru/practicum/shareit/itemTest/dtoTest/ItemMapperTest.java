@@ -4,7 +4,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -12,7 +11,6 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,7 +22,6 @@ public class ItemMapperTest {
     private ItemDto itemDto;
     private ItemRequest request;
     private BookingDto bookingDto;
-    private CommentDto commentDto;
 
     @BeforeEach
     public void fillData() {
@@ -54,12 +51,6 @@ public class ItemMapperTest {
                 .end(START_TIME.plusDays(1))
                 .status(BookingStatus.WAITING)
                 .build();
-        commentDto = CommentDto.builder()
-                .authorName("Bob")
-                .item(itemDto)
-                .text("text")
-                .id(1L)
-                .build();
     }
 
     @Test
@@ -100,23 +91,9 @@ public class ItemMapperTest {
 
     @Test
     void toItemDtoWithBookings() {
-        ItemDto actual = ItemMapper.toItemDtoWithBookings(item, List.of(bookingDto));
+        ItemDto actual = ItemMapper.toItemDtoWithBookings(item, bookingDto, null);
         assertEquals(actual.getAvailable(), item.getAvailable());
         assertEquals(actual.getLastBooking().getStatus(), bookingDto.getStatus());
-    }
-
-    @Test
-    void toItemDtoWithBookingsAndComments() {
-        ItemDto actual = ItemMapper.toItemDtoWithBookingsAndComments(item, List.of(bookingDto), List.of(commentDto));
-        assertEquals(actual.getLastBooking().getStatus(), bookingDto.getStatus());
-        assertEquals(actual.getAvailable(),item.getAvailable());
-        assertEquals(actual.getComments().size(), 1);
-    }
-
-    @Test
-    void toItemDtoWithComments() {
-        ItemDto actual = ItemMapper.toItemDtoWithComments(item, List.of(commentDto));
-        assertEquals(actual.getAvailable(),item.getAvailable());
-        assertEquals(actual.getComments().size(), 1);
+        assertNull(actual.getNextBooking());
     }
 }
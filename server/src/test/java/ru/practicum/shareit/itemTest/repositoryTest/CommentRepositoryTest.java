@@ -0,0 +1,103 @@
+package ru.practicum.shareit.itemTest.repositoryTest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Item firstItem;
+    private Item secondItem;
+    private User author;
+
+    @BeforeEach
+    public void addItems() {
+        User owner = userRepository.save(User.builder().email("owner@mail.ru").name("owner").build());
+        author = userRepository.save(User.builder().email("author@mail.ru").name("author").build());
+        firstItem = itemRepository.save(Item.builder().name("item1").description("desc").available(true)
+                .owner(owner).build());
+        secondItem = itemRepository.save(Item.builder().name("item2").description("desc").available(true)
+                .owner(owner).build());
+    }
+
+    @Test
+    void findLatestIdsByItemIdIn_whenItemsHaveManyComments_thenReturnLatestPerItem() {
+        LocalDateTime created = LocalDateTime.of(2030, 5, 1, 12, 0);
+        List<Comment> firstItemComments = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            firstItemComments.add(save(firstItem, created.plusHours(i)));
+        }
+        Comment sameTime = save(firstItem, created.plusHours(3));
+        Comment secondItemComment = save(secondItem, created);
+
+        List<Long> ids = commentRepository.findLatestIdsByItemIdIn(List.of(firstItem.getId(), secondItem.getId()),
+                2);
+        List<Comment> comments = commentRepository.findAllWithAuthorByIdIn(ids);
+
+        assertEquals(comments.size(), 3);
+        assertEquals(comments.get(0).getId(), sameTime.getId());
+        assertEquals(comments.get(1).getId(), firstItemComments.get(3).getId());
+        assertEquals(comments.get(2).getId(), secondItemComment.getId());
+        assertEquals(comments.get(0).getAuthor().getName(), "author");
+    }
+
+    @Test
+    void findAllByItemIdKeyset_whenCursorGiven_thenReturnOlderCommentsOfItem() {
+        LocalDateTime created = LocalDateTime.of(2030, 5, 1, 12, 0);
+        Comment oldest = save(firstItem, created);
+        Comment middle = save(firstItem, created.plusHours(1));
+        Comment sameTimeLowerId = save(firstItem, created.plusHours(2));
+        Comment newest = save(firstItem, created.plusHours(2));
+        save(secondItem, created.plusHours(1));
+
+        List<Comment> page = commentRepository.findAllByItemIdKeyset(firstItem.getId(), newest.getCreated(),
+                newest.getId(), PageRequest.of(0, 2));
+        List<Comment> rest = commentRepository.findAllByItemIdKeyset(firstItem.getId(), middle.getCreated(),
+                middle.getId(), PageRequest.of(0, 2));
+
+        assertEquals(page.size(), 2);
+        assertEquals(page.get(0).getId(), sameTimeLowerId.getId());
+        assertEquals(page.get(1).getId(), middle.getId());
+        assertEquals(rest.size(), 1);
+        assertEquals(rest.get(0).getId(), oldest.getId());
+    }
+
+    @AfterEach
+    public void deleteAll() {
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Comment save(Item item, LocalDateTime created) {
+        return commentRepository.save(Comment.builder().text("text").item(item).author(author).created(created)
+                .build());
+    }
+}
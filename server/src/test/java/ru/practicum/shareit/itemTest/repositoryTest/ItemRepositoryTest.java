@@ -7,15 +7,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -27,6 +34,12 @@ public class ItemRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private long ownerOneId;
 
     @BeforeEach
@@ -83,6 +96,41 @@ public class ItemRepositoryTest {
         assertEquals(items.get(0).getDescription(), "desc");
     }
 
+    @Test
+    void search_whenNameMatchesButItemIsUnavailable_thenItemIsNotReturned() {
+        Item item = itemRepository.findByOwner_Id(ownerOneId, PageRequest.of(0, 10)).get(0);
+        item.setAvailable(false);
+        itemRepository.save(item);
+
+        List<Item> items = itemRepository.getItemsBySearchQuery("item", PageRequest.of(0, 10));
+
+        assertEquals(items.size(), 1);
+        assertEquals(items.get(0).getName(), "item2");
+    }
+
+    @Test
+    void searchFreeBetween_whenItemBookedInPeriod_thenItemIsNotReturned() {
+        List<Item> items = itemRepository.getItemsBySearchQuery("item", PageRequest.of(0, 10));
+        User booker = userRepository.save(User.builder().email("booker@mail.ru").name("booker").build());
+        LocalDateTime friday = LocalDateTime.of(2030, 5, 3, 12, 0);
+        LocalDateTime sunday = friday.plusDays(2);
+        bookingRepository.save(Booking.builder().item(items.get(0)).booker(booker)
+                .start(friday.minusDays(1)).end(friday.plusHours(1)).status(BookingStatus.WAITING).build());
+        bookingRepository.save(Booking.builder().item(items.get(1)).booker(booker)
+                .start(friday.plusHours(2)).end(sunday).status(BookingStatus.REJECTED).build());
+        bookingRepository.save(Booking.builder().item(items.get(1)).booker(booker)
+                .start(sunday).end(sunday.plusDays(1)).status(BookingStatus.APPROVED).build());
+
+        List<Item> free = itemRepository.getItemsBySearchQueryFreeBetween("item", friday, sunday,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING), PageRequest.of(0, 10));
+        List<Item> freeNextWeek = itemRepository.getItemsBySearchQueryFreeBetween("item", friday.plusDays(7),
+                sunday.plusDays(7), List.of(BookingStatus.APPROVED, BookingStatus.WAITING), PageRequest.of(0, 10));
+
+        assertEquals(free.size(), 1);
+        assertEquals(free.get(0).getName(), "item2");
+        assertEquals(freeNextWeek.size(), 2);
+    }
+
     @Test
     void search_whenDataIsNone_whenReturnEmptyList() {
         Pageable page = PageRequest.of(0, 10);
@@ -91,8 +139,92 @@ public class ItemRepositoryTest {
         assertEquals(items.size(), 0);
     }
 
+    @Test
+    void findByOwnerId_whenExplained_thenPlanUsesOwnerIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM items WHERE owner_id = " + ownerOneId +
+                " AND id > 0 ORDER BY id", String.class);
+
+        assertTrue(plan.contains("IDX_ITEMS_OWNER_ID"), plan);
+    }
+
+    @Test
+    void itemComments_whenExplained_thenPlanUsesItemCreatedIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM comments WHERE item_id = 1 " +
+                "AND created < CURRENT_TIMESTAMP ORDER BY created", String.class);
+
+        assertTrue(plan.contains("IDX_COMMENTS_ITEM_CREATED"), plan);
+    }
+
+    @Test
+    void counters_whenIncrementedAndItemSavedAgain_thenCountersAreKept() {
+        Item item = itemRepository.findByOwner_Id(ownerOneId, PageRequest.of(0, 10)).get(0);
+
+        itemRepository.incrementCommentsCount(item.getId());
+        itemRepository.incrementCommentsCount(item.getId());
+        itemRepository.addToBookingsCount(item.getId(), 3);
+        itemRepository.addToBookingsCount(item.getId(), -1);
+        item.setName("renamed");
+        itemRepository.saveAndFlush(item);
+
+        assertEquals(countersOf(item.getId()), List.of(2L, 2L));
+    }
+
+    @Test
+    void reconcileCounters_whenCountersDrifted_thenRepairOnlyDriftedItems() {
+        List<Item> items = itemRepository.getItemsBySearchQuery("item", PageRequest.of(0, 10));
+        User booker = userRepository.save(User.builder().email("booker@mail.ru").name("booker").build());
+        LocalDateTime start = LocalDateTime.of(2030, 5, 3, 12, 0);
+        bookingRepository.save(Booking.builder().item(items.get(0)).booker(booker)
+                .start(start).end(start.plusDays(1)).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().item(items.get(0)).booker(booker)
+                .start(start.plusDays(2)).end(start.plusDays(3)).status(BookingStatus.REJECTED).build());
+        bookingRepository.flush();
+        jdbcTemplate.update("UPDATE items SET comments_count = 7 WHERE id = ?", items.get(0).getId());
+
+        int repaired = itemRepository.reconcileCounters(List.of(items.get(0).getId(), items.get(1).getId()),
+                BookingStatus.APPROVED);
+
+        assertEquals(repaired, 1);
+        assertEquals(countersOf(items.get(0).getId()), List.of(0L, 1L));
+        assertEquals(countersOf(items.get(1).getId()), List.of(0L, 0L));
+    }
+
+    @Test
+    void findIdsAfter_whenPageGiven_thenReturnNextIdsInOrder() {
+        List<Item> items = itemRepository.getItemsBySearchQuery("item", PageRequest.of(0, 10));
+
+        assertEquals(itemRepository.findIdsAfter(0L, PageRequest.of(0, 1)), List.of(items.get(0).getId()));
+        assertEquals(itemRepository.findIdsAfter(items.get(0).getId(), PageRequest.of(0, 10)),
+                List.of(items.get(1).getId()));
+    }
+
+    @Test
+    void saveAll_whenManyItems_thenIdsComeFromPooledSequence() {
+        User owner = userRepository.findById(ownerOneId).orElseThrow();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(Item.builder().name("bulk" + i).description("desc").available(true).owner(owner).build());
+        }
+
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        Long saved = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE name LIKE 'bulk%'",
+                Long.class);
+
+        assertEquals(saved, 120);
+        for (int i = 1; i < items.size(); i++) {
+            assertEquals(items.get(i).getId(), items.get(i - 1).getId() + 1);
+        }
+    }
+
+    private List<Long> countersOf(long itemId) {
+        return jdbcTemplate.queryForObject("SELECT comments_count, bookings_count FROM items WHERE id = ?",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)), itemId);
+    }
+
     @AfterEach
     public void deleteItems() {
+        bookingRepository.deleteAll();
         itemRepository.deleteAll();
     }
 }
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка поиска с опечатками по словарю из {@code tokens} различных слов. Каждый вызов ищет случайное слово
+ * словаря с одной случайной опечаткой; режим SampleTime выводит перцентили, в том числе p0.99.
+ * Запуск:
+ * <pre>
+ * mvn -pl server test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath ru.practicum.shareit.itemTest.searchTest.FuzzySearchBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FuzzySearchBenchmark {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+    private static final int QUERIES = 4096;
+
+    @Param("100000")
+    private int tokens;
+
+    private ItemFuzzyIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Set<String> dictionary = new LinkedHashSet<>();
+        while (dictionary.size() < tokens) {
+            dictionary.add(word(random));
+        }
+        List<String> words = new ArrayList<>(dictionary);
+        index = new ItemFuzzyIndex(null);
+        for (int i = 0; i < words.size(); i += 3) {
+            String name = words.get(i);
+            String description = String.join(" ", words.subList(Math.min(i + 1, words.size()),
+                    Math.min(i + 3, words.size())));
+            index.put(i + 1, name, description);
+        }
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = typo(words.get(random.nextInt(words.size())), random);
+        }
+    }
+
+    @Benchmark
+    public List<Long> fuzzySearch() {
+        String query = queries[next++ & (QUERIES - 1)];
+        return index.search(query, 0, 20);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 5 + random.nextInt(6); i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    private static String typo(String word, Random random) {
+        StringBuilder typo = new StringBuilder(word);
+        int position = random.nextInt(word.length());
+        switch (random.nextInt(3)) {
+            case 0:
+                typo.deleteCharAt(position);
+                break;
+            case 1:
+                typo.insert(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                break;
+            default:
+                typo.setCharAt(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return typo.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(FuzzySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    @Test
+    void search_whenIndexLoaded_thenHydrateFoundItemsInRankOrder() {
+        Item drill = Item.builder().id(1L).name("Дрель").description("desc").available(true).build();
+        Item screwdriver = Item.builder().id(2L).name("Отвёртка").description("дрель").available(true).build();
+        when(itemRepository.findAvailableSearchDocuments(eq(0L), any()))
+                .thenReturn(List.of(document(2L, "Отвёртка", "дрель"), document(1L, "Дрель", "desc")));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(screwdriver, drill));
+        searchEngine.load();
+
+        List<Item> items = searchEngine.search("дрель", PageRequest.of(0, 10));
+
+        assertEquals(items, List.of(drill, screwdriver));
+    }
+
+    @Test
+    void indexItem_whenItemBecomesUnavailable_thenItIsNotFound() {
+        Item item = Item.builder().id(1L).name("Дрель").description("desc").available(true).build();
+        searchEngine.indexItem(item);
+        item.setAvailable(false);
+        searchEngine.indexItem(item);
+
+        List<Item> items = searchEngine.search("дрель", PageRequest.of(0, 10));
+
+        assertTrue(items.isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    private ItemSearchDocument document(Long id, String name, String description) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemSearchDocument.class,
+                Map.of("id", id, "name", name, "description", description));
+    }
+}
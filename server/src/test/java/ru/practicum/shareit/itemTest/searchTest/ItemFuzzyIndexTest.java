@@ -0,0 +1,66 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemFuzzyIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemFuzzyIndex index;
+
+    @BeforeEach
+    public void fillData() {
+        index.put(1L, "Дрель Bosch", "Ударная дрель");
+        index.put(2L, "Шуруповёрт", "Аккумуляторный, почти как дрель");
+        index.put(3L, "Пила", "Ножовка по дереву");
+    }
+
+    @Test
+    void search_whenQueryHasTypos_thenReturnItemsWithinEditDistance() {
+        assertEquals(index.search("дрнль", 0, 10), List.of(1L, 2L));
+        assertEquals(index.search("шуруповерт", 0, 10), List.of(2L));
+        assertEquals(index.search("пилаа", 0, 10), List.of(3L));
+    }
+
+    @Test
+    void search_whenQueryHasSeveralWords_thenEveryWordMustMatchAndCloserItemsGoFirst() {
+        index.put(4L, "Дрель Boch", "desc");
+
+        assertEquals(index.search("дрель bosch", 0, 10), List.of(1L, 4L));
+        assertEquals(index.search("дрель пила", 0, 10), List.of());
+    }
+
+    @Test
+    void search_whenShortWordOrTooManyTypos_thenRequireCloserMatch() {
+        assertEquals(index.search("пл", 0, 10), List.of());
+        assertEquals(index.search("дурль", 0, 10), List.of());
+    }
+
+    @Test
+    void search_whenPaged_thenApplyOffsetAndLimit() {
+        assertEquals(index.search("дрель", 1, 1), List.of(2L));
+        assertEquals(index.search("дрель", 2, 10), List.of());
+    }
+
+    @Test
+    void indexItem_whenItemBecomesUnavailable_thenRemoveItFromResults() {
+        index.indexItem(Item.builder().id(1L).name("Дрель Bosch").description("desc").available(false).build());
+
+        assertEquals(index.search("дрель", 0, 10), List.of(2L));
+        assertEquals(index.search("bosch", 0, 10), List.of());
+    }
+}
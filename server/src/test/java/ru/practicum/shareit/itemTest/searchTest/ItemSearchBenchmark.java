@@ -0,0 +1,134 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.search.TrigramIndex;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение триграммного индекса в памяти с LIKE-запросом, который строит {@code getItemsBySearchQuery}.
+ * LIKE выполняется на H2 в памяти, поэтому цифры показывают стоимость полного просмотра без сети и диска.
+ * Запуск:
+ * <pre>
+ * mvn -pl server test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath ru.practicum.shareit.itemTest.searchTest.ItemSearchBenchmark"
+ * </pre>
+ * Параметры JMH передаются после имени класса, например {@code -p items=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ItemSearchBenchmark {
+    private static final String LIKE_QUERY = "SELECT id, name, description, available FROM items " +
+            "WHERE available = true AND (lower(name) LIKE lower(concat('%', ?, '%')) " +
+            "OR lower(description) LIKE lower(concat('%', ?, '%'))) ORDER BY id LIMIT 20";
+    private static final String[] SYLLABLES = {"ka", "ro", "li", "ma", "tu", "ne", "zo", "vi", "ba", "she",
+            "ko", "ra", "du", "pi", "se", "go"};
+
+    @Param("1000000")
+    private int items;
+
+    @Param({"drill", "screwdriver", "missing"})
+    private String query;
+
+    private TrigramIndex index;
+    private Connection connection;
+    private PreparedStatement likeStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        connection = DriverManager.getConnection("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS items");
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(100), " +
+                    "description VARCHAR(255), available BOOLEAN)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= items; id++) {
+                String name = word(random) + " " + word(random);
+                String description = description(random);
+                boolean available = random.nextInt(10) != 0;
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, description);
+                insert.setBoolean(4, available);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+                if (available) {
+                    index.put(id, name, description);
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        likeStatement = connection.prepareStatement(LIKE_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return index.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> jpqlLike() throws SQLException {
+        likeStatement.setString(1, query);
+        likeStatement.setString(2, query);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            description.append(word(random)).append(' ');
+        }
+        if (random.nextInt(20) == 0) {
+            description.append("drill ");
+        }
+        if (random.nextInt(10_000) == 0) {
+            description.append("screwdriver ");
+        }
+        return description.toString().trim();
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 2 + random.nextInt(3); i < length; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
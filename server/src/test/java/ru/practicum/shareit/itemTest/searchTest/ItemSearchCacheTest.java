@@ -0,0 +1,109 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemSearchCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache searchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void fillData() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchCache = new ItemSearchCache(100, Duration.ofMinutes(1), "jpa", meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_whenSameQueryInDifferentCase_thenLoadOnce() {
+        search("Drill");
+        search("dRILL");
+
+        assertEquals(loads.get(), 1);
+        assertEquals(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count(), 1);
+        assertEquals(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count(), 1);
+    }
+
+    @Test
+    void get_whenQueryDiffersInWhitespace_thenLoadOnceWithNormalizedText() {
+        search("  Power   drill ");
+        List<ItemDto> result = search("power drill");
+
+        assertEquals(1, loads.get());
+        assertEquals("power drill", result.get(0).getName());
+    }
+
+    @Test
+    void invalidate_whenItemTextContainsQuery_thenRemoveOnlyThatQuery() {
+        search("drill");
+        search("tent");
+
+        searchCache.invalidate("Power drill", "Cordless");
+        search("drill");
+        search("tent");
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidate_whenItemHasAllQueryWordsInOtherOrder_thenRemoveQuery() {
+        search("bosch drill");
+
+        searchCache.invalidate("Drill", "Made by Bosch");
+        search("bosch drill");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_whenItemHasOnlySomeQueryWords_thenKeepQuery() {
+        search("bosch drill");
+
+        searchCache.invalidate("Drill", "Makita");
+        search("bosch drill");
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_whenQueryHasWildcard_thenRemoveQuery() {
+        search("dr_ll");
+
+        searchCache.invalidate("Tent", "Camping");
+        search("dr_ll");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_whenMemoryEngine_thenRemoveAllQueries() {
+        searchCache = new ItemSearchCache(100, Duration.ofMinutes(1), "memory", meterRegistry);
+        search("drill");
+        search("tent");
+
+        searchCache.invalidate("Power drill", "Cordless");
+        search("drill");
+        search("tent");
+
+        assertEquals(4, loads.get());
+    }
+
+    private List<ItemDto> search(String text) {
+        return searchCache.get(text, 0, 10, query -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder().name(query).build());
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.LevenshteinTrie;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevenshteinTrieTest {
+
+    @Test
+    void distance_whenWordsDiffer_thenReturnLevenshteinDistance() {
+        assertEquals(LevenshteinTrie.distance("дрель", "дрель"), 0);
+        assertEquals(LevenshteinTrie.distance("дрель", "дрлеь"), 2);
+        assertEquals(LevenshteinTrie.distance("пила", "пилка"), 1);
+        assertEquals(LevenshteinTrie.distance("kitten", "sitting"), 3);
+        assertEquals(LevenshteinTrie.distance("", "abc"), 3);
+    }
+
+    @Test
+    void search_whenWordsWithinDistance_thenReturnThemWithDistance() {
+        LevenshteinTrie trie = new LevenshteinTrie();
+        trie.add("дрель");
+        trie.add("дрели");
+        trie.add("пила");
+
+        assertEquals(trie.search("дрель", 1), Map.of("дрель", 0, "дрели", 1));
+        assertEquals(trie.search("пилка", 1), Map.of("пила", 1));
+        assertEquals(trie.search("молоток", 2), Map.of());
+    }
+
+    @Test
+    void remove_whenWordRemoved_thenDoNotFindItAndKeepWordsWithSamePrefix() {
+        LevenshteinTrie trie = new LevenshteinTrie();
+        trie.add("дрель");
+        trie.add("дрели");
+        trie.add("дрель");
+
+        trie.remove("дрель");
+        trie.remove("отвёртка");
+
+        assertEquals(trie.size(), 1);
+        assertEquals(trie.search("дрель", 1), Map.of("дрели", 1));
+    }
+
+    @Test
+    void search_whenRandomDictionary_thenMatchBruteForce() {
+        Random random = new Random(7);
+        LevenshteinTrie trie = new LevenshteinTrie();
+        Set<String> words = new HashSet<>();
+        for (int i = 0; i < 2_000; i++) {
+            String word = randomWord(random);
+            words.add(word);
+            trie.add(word);
+        }
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+            int maxDistance = random.nextInt(3);
+            Map<String, Integer> expected = new HashMap<>();
+            for (String word : words) {
+                int distance = LevenshteinTrie.distance(query, word);
+                if (distance <= maxDistance) {
+                    expected.put(word, distance);
+                }
+            }
+
+            assertEquals(expected, trie.search(query, maxDistance));
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[3 + random.nextInt(5)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(5));
+        }
+        return new String(word);
+    }
+}
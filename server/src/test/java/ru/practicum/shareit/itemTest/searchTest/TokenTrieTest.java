@@ -0,0 +1,84 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.search.TokenTrie;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenTrieTest {
+    private TokenTrie trie;
+
+    @BeforeEach
+    public void fillData() {
+        trie = new TokenTrie(10);
+        trie.add("Дрель Bosch");
+        trie.add("Дрель-шуруповёрт Makita");
+        trie.add("Дрель дрель");
+        trie.add("Держатель");
+    }
+
+    @Test
+    void suggest_whenPrefixMatches_thenReturnCompletionsOrderedByItemCount() {
+        assertEquals(trie.suggest("д", 10), List.of(new ItemSuggestionDto("дрель", 3),
+                new ItemSuggestionDto("держатель", 1)));
+    }
+
+    @Test
+    void suggest_whenLimitIsSmaller_thenReturnTopCompletions() {
+        trie.add("Держатель");
+        trie.add("Держатель");
+        trie.add("Держатель");
+
+        assertEquals(trie.suggest("д", 1), List.of(new ItemSuggestionDto("держатель", 4)));
+    }
+
+    @Test
+    void suggest_whenPrefixIsUnknown_thenReturnEmptyList() {
+        assertTrue(trie.suggest("пила", 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+    }
+
+    @Test
+    void remove_whenLastItemRemoved_thenTokenIsNotSuggested() {
+        trie.remove("Держатель");
+        trie.remove("Дрель Bosch");
+
+        assertEquals(trie.suggest("д", 10), List.of(new ItemSuggestionDto("дрель", 2)));
+        assertEquals(trie.suggest("b", 10), List.of());
+    }
+
+    @Test
+    void remove_whenTopWordRemoved_thenNextWordFromSubtreeIsSuggested() {
+        TokenTrie smallTrie = new TokenTrie(2);
+        for (int i = 0; i < 3; i++) {
+            smallTrie.add("Дрель");
+        }
+        smallTrie.add("Держатель");
+        smallTrie.add("Держатель");
+        smallTrie.add("Диван");
+        assertEquals(smallTrie.suggest("д", 10), List.of(new ItemSuggestionDto("дрель", 3),
+                new ItemSuggestionDto("держатель", 2)));
+
+        for (int i = 0; i < 3; i++) {
+            smallTrie.remove("Дрель");
+        }
+
+        assertEquals(smallTrie.suggest("д", 10), List.of(new ItemSuggestionDto("держатель", 2),
+                new ItemSuggestionDto("диван", 1)));
+        assertEquals(smallTrie.suggest("др", 10), List.of());
+    }
+
+    @Test
+    void remove_whenWordIsPrefixOfAnother_thenLongerWordStaysSuggested() {
+        trie.add("Дрели");
+        trie.remove("Дрель Bosch");
+        trie.remove("Дрель-шуруповёрт Makita");
+        trie.remove("Дрель дрель");
+
+        assertEquals(trie.suggest("дрел", 10), List.of(new ItemSuggestionDto("дрели", 1)));
+    }
+}
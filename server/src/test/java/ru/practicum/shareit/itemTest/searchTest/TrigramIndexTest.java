@@ -0,0 +1,72 @@
+package ru.practicum.shareit.itemTest.searchTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.TrigramIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void fillData() {
+        index = new TrigramIndex();
+        index.put(3L, "Дрель", "Аккумуляторная дрель");
+        index.put(1L, "Отвёртка", "Крестовая, подходит для дрели");
+        index.put(2L, "Drill", "Ударная ДРЕЛЬ Bosch");
+    }
+
+    @Test
+    void search_whenTextMatches_thenReturnNameMatchesFirst() {
+        assertEquals(index.search("дрел", 0, 10), List.of(3L, 1L, 2L));
+    }
+
+    @Test
+    void search_whenPaged_thenReturnRequestedSlice() {
+        assertEquals(index.search("дрел", 1, 1), List.of(1L));
+        assertEquals(index.search("дрел", 3, 10), List.of());
+    }
+
+    @Test
+    void search_whenTextIsShorterThanTrigram_thenScanAllItems() {
+        assertEquals(index.search("DR", 0, 10), List.of(2L));
+    }
+
+    @Test
+    void search_whenTrigramsMatchButNotAsSubstring_thenItemIsNotReturned() {
+        index.put(4L, "abcxbcd", "");
+
+        assertEquals(index.search("abcd", 0, 10), List.of());
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextIsNotFound() {
+        index.put(3L, "Перфоратор", "Мощный");
+
+        assertEquals(index.search("дрель", 0, 10), List.of(2L));
+        assertEquals(index.search("мощн", 0, 10), List.of(3L));
+        assertEquals(index.size(), 3);
+    }
+
+    @Test
+    void remove_whenItemRemoved_thenItIsNotFound() {
+        index.remove(2L);
+
+        assertEquals(index.search("дрел", 0, 10), List.of(3L, 1L));
+        assertEquals(index.size(), 2);
+    }
+
+    @Test
+    void put_whenSlotOfRemovedItemReused_thenPostingListsStaySorted() {
+        index.remove(3L);
+        index.put(5L, "Дрель новая", "Ударная");
+
+        assertEquals(index.search("дрел", 0, 10), List.of(5L, 1L, 2L));
+        assertEquals(index.search("ударн", 0, 10), List.of(2L, 5L));
+        assertEquals(index.search("но", 0, 10), List.of(5L));
+        assertEquals(index.size(), 3);
+    }
+}
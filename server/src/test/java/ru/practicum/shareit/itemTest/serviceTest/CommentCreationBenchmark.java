@@ -0,0 +1,133 @@
+package ru.practicum.shareit.itemTest.serviceTest;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.validator.UserValidatorService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время создания комментария к вещи, у которой уже {@code comments} комментариев, на базе H2 профиля test.
+ * {@code previousPath} повторяет по шагам прежнюю реализацию: проверка автора, загрузка его завершённых
+ * бронирований вещи, полная карточка вещи через {@code getItemDtoById} и сохранение через merge.
+ * {@code leanPath} вызывает текущий {@code addCommentToItem}.
+ * Запуск:
+ * <pre>
+ * mvn -pl server test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath ru.practicum.shareit.itemTest.serviceTest.CommentCreationBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CommentCreationBenchmark {
+    @Param("10000")
+    private int comments;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private UserValidatorService userValidator;
+    private CommentRepository commentRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private long bookerId;
+    private long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        itemService = context.getBean(ItemService.class);
+        userValidator = context.getBean(UserValidatorService.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru')");
+        jdbc.update("INSERT INTO users (name, email) VALUES ('booker', 'booker@mail.ru')");
+        long ownerId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'owner@mail.ru'", Long.class);
+        bookerId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'booker@mail.ru'", Long.class);
+        jdbc.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (NEXT VALUE FOR items_seq, 'дрель', 'дрель', true, ?)",
+                ownerId);
+        itemId = jdbc.queryForObject("SELECT id FROM items", Long.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        jdbc.update("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status, version) " +
+                "VALUES (?, ?, ?, ?, 'APPROVED', 0)", itemId, bookerId, start, start.plusDays(1));
+        List<Object[]> rows = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            rows.add(new Object[]{"отзыв " + i, itemId, bookerId, start.plusMinutes(i)});
+        }
+        jdbc.batchUpdate("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CommentDto previousPath() {
+        return transaction.execute(status -> {
+            CommentDto commentDto = newComment();
+            UserDto author = userValidator.checkingUserId(bookerId);
+            entityManager.createQuery("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+                            "WHERE b.item.id = :itemId AND b.booker.id = :bookerId AND b.end <= :now", Booking.class)
+                    .setParameter("itemId", itemId)
+                    .setParameter("bookerId", bookerId)
+                    .setParameter("now", LocalDateTime.now())
+                    .getResultList();
+            ItemDto item = itemService.getItemDtoById(itemId, bookerId);
+            commentDto.setId(0L);
+            return CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(commentDto,
+                    UserMapper.toUser(author), ItemMapper.toItem(item))));
+        });
+    }
+
+    @Benchmark
+    public CommentDto leanPath() {
+        return itemService.addCommentToItem(bookerId, itemId, newComment());
+    }
+
+    private static CommentDto newComment() {
+        return CommentDto.builder()
+                .text("отзыв")
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CommentCreationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.itemTest.serviceTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.service.ItemCalendarCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemCalendarCacheTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(7);
+
+    private ItemCalendarCache calendarCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void fillData() {
+        calendarCache = new ItemCalendarCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void invalidate_whenItemChanged_thenReloadOnlyThatItem() {
+        calendar(1L);
+        calendar(2L);
+
+        calendarCache.invalidate(1L);
+        calendar(1L);
+        calendar(2L);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidate_whenCalledDuringLoad_thenLoadedResultIsNotReused() {
+        calendarCache.get(1L, FROM, TO, () -> {
+            loads.incrementAndGet();
+            calendarCache.invalidate(1L);
+            return List.of();
+        });
+
+        calendar(1L);
+        calendar(1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    private List<FreeIntervalDto> calendar(long itemId) {
+        return calendarCache.get(itemId, FROM, TO, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.itemTest.serviceTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCounterReconciler;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCounterReconcilerTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void reconcile_whenItemsSpanSeveralBatches_thenRepairEachBatchAfterLastId() {
+        ItemCounterReconciler reconciler = new ItemCounterReconciler(itemRepository, 2);
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of(5L, 8L));
+        when(itemRepository.findIdsAfter(8L, PageRequest.of(0, 2))).thenReturn(List.of(9L));
+        when(itemRepository.reconcileCounters(List.of(1L, 2L), BookingStatus.APPROVED)).thenReturn(1);
+        when(itemRepository.reconcileCounters(List.of(5L, 8L), BookingStatus.APPROVED)).thenReturn(0);
+        when(itemRepository.reconcileCounters(List.of(9L), BookingStatus.APPROVED)).thenReturn(1);
+
+        int repaired = reconciler.reconcile();
+
+        assertEquals(repaired, 2);
+        verify(itemRepository, times(3)).reconcileCounters(anyCollection(), any());
+    }
+
+    @Test
+    void reconcile_whenNoItems_thenNothingIsRepaired() {
+        ItemCounterReconciler reconciler = new ItemCounterReconciler(itemRepository, 2);
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        assertEquals(reconciler.reconcile(), 0);
+        verify(itemRepository, never()).reconcileCounters(anyCollection(), any());
+    }
+}
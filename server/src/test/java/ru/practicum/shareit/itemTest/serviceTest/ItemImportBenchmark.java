@@ -0,0 +1,95 @@
+package ru.practicum.shareit.itemTest.serviceTest;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время записи {@code rows} вещей на базе H2 профиля test: {@code importStream} разбирает поток NDJSON
+ * и сохраняет пачками через {@link ItemImporter}, {@code createOneByOne} вызывает {@code createItemDto}
+ * для каждой вещи, как делал клиент до появления импорта.
+ * Запуск:
+ * <pre>
+ * mvn -pl server test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath ru.practicum.shareit.itemTest.serviceTest.ItemImportBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ItemImportBenchmark {
+    @Param("10000")
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ItemImporter importer;
+    private ItemService itemService;
+    private byte[] ndjson;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        importer = context.getBean(ItemImporter.class);
+        itemService = context.getBean(ItemService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru')");
+        ownerId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"name\":\"Дрель ").append(i)
+                    .append("\",\"description\":\"Ударная дрель\",\"available\":true}\n");
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemImportResultDto importStream() throws Exception {
+        return importer.importItems(ownerId, new ByteArrayInputStream(ndjson));
+    }
+
+    @Benchmark
+    public long createOneByOne() {
+        long last = 0;
+        for (int i = 0; i < rows; i++) {
+            last = itemService.createItemDto(ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Ударная дрель")
+                    .available(true)
+                    .build(), ownerId).getId();
+        }
+        return last;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ItemImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.itemTest.serviceTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validator.ItemValidatorService;
+import ru.practicum.shareit.validator.UserValidatorService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemImporterTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserValidatorService userValidator;
+    @Mock
+    private ItemSearchEngine searchEngine;
+    @Mock
+    private ItemSearchCache searchCache;
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+    @Mock
+    private ItemFuzzyIndex fuzzyIndex;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ItemImporter importer;
+    private final User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+
+    @BeforeEach
+    public void createImporter() {
+        importer = new ItemImporter(itemRepository, requestRepository, userRepository, userValidator,
+                new ItemValidatorService(itemRepository), searchEngine, searchCache, suggestIndex, fuzzyIndex,
+                new ObjectMapper(), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void importItems_whenRowsAreMixed_thenSaveValidRowsAndReportErrorsByLine() throws Exception {
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(requestRepository.findAllById(Set.of(7L, 8L)))
+                .thenReturn(List.of(ItemRequest.builder().id(7L).build()));
+
+        ItemImportResultDto result = importer.importItems(1L, rows(
+                "{\"line\":1,\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"line\":2,\"error\":\"Невозможно использовать пустые поля!\"}",
+                "",
+                "не json",
+                "{\"name\":\"Пила\",\"description\":\"\",\"available\":true}",
+                "{\"line\":6,\"name\":\"Лестница\",\"description\":\"3 м\",\"available\":false,\"requestId\":7}",
+                "{\"line\":7,\"name\":\"Стремянка\",\"description\":\"2 м\",\"available\":true,\"requestId\":8}"));
+
+        assertEquals(result.getImported(), 2);
+        assertEquals(result.getFailed(), 4);
+        assertEquals(result.getErrors(), List.of(
+                new ItemImportErrorDto(2L, "Невозможно использовать пустые поля!"),
+                new ItemImportErrorDto(4L, result.getErrors().get(1).getError()),
+                new ItemImportErrorDto(5L, "Невозможно использовать пустые поля!"),
+                new ItemImportErrorDto(7L, "Несуществующий запрос: 8")));
+        assertTrue(result.getErrors().get(1).getError().startsWith("Некорректная строка"));
+        verify(itemRepository).saveAll(argThat(items -> ((List<Item>) items).size() == 2));
+        verify(searchEngine, times(2)).indexItem(any(Item.class));
+        verify(suggestIndex).replace(null, "Дрель");
+        verify(suggestIndex).replace(null, null);
+    }
+
+    @Test
+    void importItems_whenChunkFails_thenSaveRowsOneByOne() throws Exception {
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        doThrow(new DataIntegrityViolationException("batch"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("row"))
+                .when(itemRepository).flush();
+
+        ItemImportResultDto result = importer.importItems(1L, rows(
+                "{\"line\":1,\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"line\":2,\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}"));
+
+        assertEquals(result.getImported(), 1);
+        assertEquals(result.getErrors(), List.of(new ItemImportErrorDto(2L, "Не удалось сохранить вещь")));
+        verify(itemRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void importItems_whenOwnerNotExists_thenThrowDataNotFoundException() {
+        doThrow(new DataNotFoundException("Пользователя не существует!")).when(userValidator)
+                .checkingUserIdAndNotReturn(99L);
+
+        assertThrows(DataNotFoundException.class, () -> importer.importItems(99L, rows("{}")));
+        verifyNoInteractions(itemRepository);
+    }
+
+    private static InputStream rows(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,23 +7,34 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentCursor;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFuzzyIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemCalendarCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.validator.ItemValidatorService;
 import ru.practicum.shareit.validator.UserValidatorService;
 
@@ -31,7 +42,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -55,9 +69,21 @@ public class ItemServiceImplTest {
     @Mock
    private RequestRepository itemRequestRepository;
     @Mock
+   private UserRepository userRepository;
+    @Mock
    private UserValidatorService userValidator;
     @Mock
    private ItemValidatorService itemValidator;
+    @Mock
+   private ItemSearchEngine searchEngine;
+    @Mock
+   private ItemSearchCache searchCache;
+    @Mock
+   private ItemSuggestIndex suggestIndex;
+    @Mock
+   private ItemFuzzyIndex fuzzyIndex;
+    @Mock
+   private ItemCalendarCache calendarCache;
     @InjectMocks
    private ItemServiceImpl itemServiceImpl;
 
@@ -109,6 +135,10 @@ public class ItemServiceImplTest {
 
         assertEquals(item.getName(), actualItem.getName());
         assertEquals(item.getRequest().getId(), actualItem.getRequestId());
+        verify(searchEngine).indexItem(item);
+        verify(searchCache).invalidate(item.getName(), item.getDescription());
+        verify(suggestIndex).replace(null, item.getName());
+        verify(fuzzyIndex).indexItem(any(Item.class));
     }
 
     @Test
@@ -131,6 +161,19 @@ public class ItemServiceImplTest {
 
         assertEquals(item.getName(), actualItem.getName());
         verify(userValidator, times(0)).checkingUserId(1L);
+        verify(searchEngine).indexItem(item);
+        verify(searchCache).invalidate(item.getName(), item.getDescription(), item.getName(), item.getDescription());
+        verify(suggestIndex).replace(item.getName(), item.getName());
+    }
+
+    @Test
+    void update_whenItemBecomesUnavailable_thenRemoveItsNameFromSuggestions() {
+        when(itemValidator.validateItemId(1L)).thenReturn(item);
+        String name = item.getName();
+
+        itemServiceImpl.updateItemDto(ItemDto.builder().available(false).build(), 1L, 1L);
+
+        verify(suggestIndex).replace(name, null);
     }
 
     @Test
@@ -201,7 +244,8 @@ public class ItemServiceImplTest {
                 .build());
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItem_Owner_Id(1L)).thenReturn(bookings);
+        when(bookingRepository.findLastAndNextByItemId(eq(1L), anyList(), any(LocalDateTime.class)))
+                .thenReturn(bookings);
 
         ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 1L);
 
@@ -209,6 +253,38 @@ public class ItemServiceImplTest {
         assertEquals(actualItem.getLastBooking().getBookerId(), 1L);
     }
 
+    @Test
+    void getItemById_whenUserIsNotOwner_thenReturnItemWithoutBookings() {
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(2L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 2L);
+
+        assertEquals(item.getId(), actualItem.getId());
+        assertNull(actualItem.getLastBooking());
+        assertNull(actualItem.getNextBooking());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemById_whenOwnerHasPastAndFutureBookings_thenReturnLastAndNextBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = Booking.builder().id(1L).item(item).booker(owner).start(now.minusDays(2))
+                .end(now.minusDays(1)).status(BookingStatus.APPROVED).build();
+        Booking next = Booking.builder().id(2L).item(item).booker(owner).start(now.plusDays(1))
+                .end(now.plusDays(2)).status(BookingStatus.WAITING).build();
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findLastAndNextByItemId(eq(1L), anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(last, next));
+
+        ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 1L);
+
+        assertEquals(actualItem.getLastBooking().getId(), 1L);
+        assertEquals(actualItem.getNextBooking().getId(), 2L);
+        verify(itemRepository, times(1)).findById(1L);
+    }
+
     @Test
     void getItemById_whenItemAndUserExists_thenReturnItemWithComments() {
         List<Comment> comments = List.of(Comment.builder()
@@ -217,14 +293,66 @@ public class ItemServiceImplTest {
                 .created(LocalDateTime.now())
                 .author(owner)
                 .build());
+        item.setCommentsCount(1);
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItem_Id(1L)).thenReturn(comments);
+        when(commentRepository.findAllByItemIdKeyset(eq(1L), any(LocalDateTime.class), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, 11)))).thenReturn(comments);
 
         ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 1L);
 
         assertEquals(item.getId(), actualItem.getId());
         assertEquals(actualItem.getComments().size(), 1);
+        assertEquals(actualItem.getCommentsCount(), 1L);
+        assertNull(actualItem.getMoreComments());
+    }
+
+    @Test
+    void getItemById_whenItemHasManyComments_thenEmbedLatestCommentsAndStoredCounters() {
+        LocalDateTime created = LocalDateTime.of(2030, 5, 1, 12, 0);
+        List<Comment> comments = new ArrayList<>();
+        for (long id = 11; id >= 1; id--) {
+            comments.add(Comment.builder().id(id).text("Text").item(item).author(owner).created(created.plusHours(id))
+                    .build());
+        }
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(2L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemIdKeyset(eq(1L), any(LocalDateTime.class), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, 11)))).thenReturn(comments);
+        item.setCommentsCount(2500);
+        item.setBookingsCount(40);
+
+        ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 2L);
+
+        assertEquals(actualItem.getComments().size(), 10);
+        assertEquals(actualItem.getCommentsCount(), 2500L);
+        assertEquals(actualItem.getBookingsCount(), 40L);
+        assertEquals(CommentCursor.decode(actualItem.getMoreComments()), new CommentCursor(created.plusHours(2), 2L));
+    }
+
+    @Test
+    void getCommentsPage_whenCursorGiven_thenReturnNextPageAndCursor() {
+        LocalDateTime created = LocalDateTime.of(2030, 5, 1, 12, 0);
+        String after = new CommentCursor(created, 5L).encode();
+        List<Comment> comments = List.of(
+                Comment.builder().id(4L).text("Text").author(owner).created(created).build(),
+                Comment.builder().id(3L).text("Text").author(owner).created(created.minusHours(1)).build(),
+                Comment.builder().id(2L).text("Text").author(owner).created(created.minusHours(2)).build());
+        when(itemValidator.validateItemId(1L)).thenReturn(item);
+        when(commentRepository.findAllByItemIdKeyset(1L, created, 5L, PageRequest.of(0, 3))).thenReturn(comments);
+
+        CommentPageDto page = itemServiceImpl.getCommentsPage(1L, after, 2);
+
+        assertEquals(page.getComments().size(), 2);
+        assertEquals(page.getComments().get(1).getId(), 3L);
+        assertEquals(CommentCursor.decode(page.getNext()), new CommentCursor(created.minusHours(1), 3L));
+    }
+
+    @Test
+    void getCommentsPage_whenCursorIsBroken_thenThrowDataValidationException() {
+        when(itemValidator.validateItemId(1L)).thenReturn(item);
+
+        assertThrows(DataValidationException.class, () -> itemServiceImpl.getCommentsPage(1L, "broken", 2));
     }
 
     @Test
@@ -245,8 +373,10 @@ public class ItemServiceImplTest {
                 .build());
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItem_Owner_Id(1L)).thenReturn(bookings);
-        when(commentRepository.findAllByItem_Id(1L)).thenReturn(comments);
+        when(bookingRepository.findLastAndNextByItemId(eq(1L), anyList(), any(LocalDateTime.class)))
+                .thenReturn(bookings);
+        when(commentRepository.findAllByItemIdKeyset(eq(1L), any(LocalDateTime.class), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, 11)))).thenReturn(comments);
 
         ItemDto actualItem = itemServiceImpl.getItemDtoById(1L, 1L);
 
@@ -280,15 +410,16 @@ public class ItemServiceImplTest {
     @Test
     void getItemsByUserId_whenUserExists_thenReturnUserItemsWithComments() {
         Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Pageable pageForComments = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"));
         List<Comment> comments = List.of(Comment.builder()
+                .id(1L)
                 .text("Text")
                 .item(item)
                 .created(LocalDateTime.now())
                 .build());
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findByOwner_Id(1L, pageForItems)).thenReturn(List.of(item));
-        when(commentRepository.findAllByItemsUser_Id(1L, pageForComments)).thenReturn(comments);
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(1L), 11)).thenReturn(List.of(1L));
+        when(commentRepository.findAllWithAuthorByIdIn(List.of(1L))).thenReturn(comments);
 
         Collection<ItemDto> userItems = itemServiceImpl.getItemsDtoByUserId(1L, pageForItems);
         List<ItemDto> items = new ArrayList<>(userItems);
@@ -297,6 +428,29 @@ public class ItemServiceImplTest {
         assertEquals(items.get(0).getComments().size(), 1);
     }
 
+    @Test
+    void getItemsByUserId_whenItemHasMoreComments_thenReturnLatestCommentsAndCursor() {
+        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        LocalDateTime created = LocalDateTime.of(2030, 5, 1, 12, 0);
+        List<Long> ids = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (long id = 11; id >= 1; id--) {
+            ids.add(id);
+            comments.add(Comment.builder().id(id).text("Text").item(item).created(created.plusHours(id)).build());
+        }
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
+        when(itemRepository.findByOwner_Id(1L, pageForItems)).thenReturn(List.of(item));
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(1L), 11)).thenReturn(ids);
+        when(commentRepository.findAllWithAuthorByIdIn(ids)).thenReturn(comments);
+
+        List<ItemDto> items = new ArrayList<>(itemServiceImpl.getItemsDtoByUserId(1L, pageForItems));
+
+        assertEquals(items.get(0).getComments().size(), 10);
+        assertEquals(items.get(0).getComments().get(0).getId(), 11L);
+        assertEquals(CommentCursor.decode(items.get(0).getMoreComments()),
+                new CommentCursor(created.plusHours(2), 2L));
+    }
+
     @Test
     void getItemsByUserId_whenUserExists_thenReturnUserItemsWithBookings() {
         LocalDateTime start = LocalDateTime.now();
@@ -309,13 +463,28 @@ public class ItemServiceImplTest {
                 .build());
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findByOwner_Id(1L, pageForItems)).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItem_Owner_Id(1L)).thenReturn(bookings);
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1L)), anyList(), any(LocalDateTime.class)))
+                .thenReturn(bookings);
 
         Collection<ItemDto> userItems = itemServiceImpl.getItemsDtoByUserId(1L, pageForItems);
         List<ItemDto> items = new ArrayList<>(userItems);
 
         assertEquals(userItems.size(), 1);
         assertEquals(items.get(0).getLastBooking().getStartTime(), start);
+        assertNull(items.get(0).getNextBooking());
+        verify(bookingRepository, never()).findAllByItem_Owner_Id(anyLong());
+    }
+
+    @Test
+    void getItemsByUserId_whenUserHasNoItems_thenReturnEmptyListWithoutBookingQueries() {
+        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
+        when(itemRepository.findByOwner_Id(1L, pageForItems)).thenReturn(List.of());
+
+        Collection<ItemDto> userItems = itemServiceImpl.getItemsDtoByUserId(1L, pageForItems);
+
+        assertTrue(userItems.isEmpty());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -328,16 +497,18 @@ public class ItemServiceImplTest {
                 .end(null)
                 .status(BookingStatus.APPROVED)
                 .build());
-        Pageable pageForComments = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"));
         List<Comment> comments = List.of(Comment.builder()
+                .id(1L)
                 .text("Text")
                 .item(item)
                 .created(LocalDateTime.now())
                 .build());
         doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
         when(itemRepository.findByOwner_Id(1L, pageForItems)).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItem_Owner_Id(1L)).thenReturn(bookings);
-        when(commentRepository.findAllByItemsUser_Id(1L, pageForComments)).thenReturn(comments);
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1L)), anyList(), any(LocalDateTime.class)))
+                .thenReturn(bookings);
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(1L), 11)).thenReturn(List.of(1L));
+        when(commentRepository.findAllWithAuthorByIdIn(List.of(1L))).thenReturn(comments);
 
         Collection<ItemDto> userItems = itemServiceImpl.getItemsDtoByUserId(1L, pageForItems);
         List<ItemDto> items = new ArrayList<>(userItems);
@@ -356,7 +527,9 @@ public class ItemServiceImplTest {
                 .build();
         Pageable page = PageRequest.of(0, 10);
         String search = "DesC";
-        when(itemRepository.getItemsBySearchQuery("DesC", page)).thenReturn(List.of(item));
+        when(searchCache.get(eq("DesC"), eq(0L), eq(10), any()))
+                .thenAnswer(invocation -> invocation.<Function<String, List<ItemDto>>>getArgument(3).apply("desc"));
+        when(searchEngine.search("desc", page)).thenReturn(List.of(item));
 
         Collection<ItemDto> items = itemServiceImpl.getItemsDtoBySearch(search, page);
         List<ItemDto> itemsList = new ArrayList<>(items);
@@ -365,11 +538,104 @@ public class ItemServiceImplTest {
         assertEquals(itemsList.get(0).getName(), "name");
     }
 
+    @Test
+    void getItemsBySearchFreeBetween_whenPeriodIsCorrect_thenExcludeItemsBookedByApprovedOrWaiting() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        Pageable page = PageRequest.of(0, 10);
+        when(itemRepository.getItemsBySearchQueryFreeBetween("desc", start, end,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING), page)).thenReturn(List.of(item));
+
+        List<ItemDto> items = new ArrayList<>(itemServiceImpl.getItemsDtoBySearchFreeBetween("desc", start, end,
+                page));
+
+        assertEquals(items.size(), 1);
+        assertEquals(items.get(0).getId(), item.getId());
+    }
+
+    @Test
+    void getItemsBySearchFreeBetween_whenEndIsBeforeStart_thenThrowDataValidationException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(DataValidationException.class, () -> itemServiceImpl.getItemsDtoBySearchFreeBetween("desc",
+                start, start.minusHours(1), PageRequest.of(0, 10)));
+        assertThrows(DataValidationException.class, () -> itemServiceImpl.getItemsDtoBySearchFreeBetween("desc",
+                start, null, PageRequest.of(0, 10)));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getFreeIntervals_whenBookingsOverlap_thenReturnGapsBetweenMergedBookings() {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemValidator.validateItemId(1L)).thenReturn(item);
+        when(calendarCache.get(eq(1L), eq(from), eq(to), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<FreeIntervalDto>>>getArgument(3).get());
+        when(bookingRepository.findIntervalsByItemIdBetween(1L, List.of(BookingStatus.APPROVED,
+                BookingStatus.WAITING), from, to)).thenReturn(List.of(
+                interval(from.minusDays(1), from.plusDays(1)),
+                interval(from.plusDays(3), from.plusDays(5)),
+                interval(from.plusDays(4), from.plusDays(4).plusHours(1)),
+                interval(from.plusDays(5), from.plusDays(6))));
+
+        List<FreeIntervalDto> intervals = itemServiceImpl.getFreeIntervals(1L, from, to);
+
+        assertEquals(intervals, List.of(
+                new FreeIntervalDto(from.plusDays(1), from.plusDays(3)),
+                new FreeIntervalDto(from.plusDays(6), to)));
+    }
+
+    @Test
+    void getFreeIntervals_whenItemIsBookedForWholePeriod_thenReturnEmptyList() {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 1, 0, 0);
+        when(itemValidator.validateItemId(1L)).thenReturn(item);
+        when(calendarCache.get(eq(1L), eq(from), eq(from.plusDays(1)), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<FreeIntervalDto>>>getArgument(3).get());
+        when(bookingRepository.findIntervalsByItemIdBetween(eq(1L), any(), eq(from), eq(from.plusDays(1))))
+                .thenReturn(List.of(interval(from.minusDays(1), from.plusDays(2))));
+
+        assertTrue(itemServiceImpl.getFreeIntervals(1L, from, from.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void getFreeIntervals_whenPeriodIsEmpty_thenThrowDataValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 1, 0, 0);
+
+        assertThrows(DataValidationException.class, () -> itemServiceImpl.getFreeIntervals(1L, from, from));
+        verifyNoInteractions(calendarCache);
+    }
+
+    @Test
+    void getItemsByFuzzySearch_whenIndexFoundItems_thenReturnAvailableItemsInRankOrder() {
+        Item exact = Item.builder().id(2L).name("Дрель").description("desc").available(true).build();
+        Item typo = Item.builder().id(1L).name("Дрелька").description("desc").available(true).build();
+        Item hidden = Item.builder().id(3L).name("Дрель").description("desc").available(false).build();
+        Pageable page = PageRequest.of(0, 10);
+        when(fuzzyIndex.search("дрль", 0L, 10)).thenReturn(List.of(2L, 3L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(typo, hidden, exact));
+
+        List<ItemDto> items = new ArrayList<>(itemServiceImpl.getItemsDtoByFuzzySearch("дрль", page));
+
+        assertEquals(items.size(), 2);
+        assertEquals(items.get(0).getId(), 2L);
+        assertEquals(items.get(1).getId(), 1L);
+    }
+
+    @Test
+    void getItemsByFuzzySearch_whenNothingFound_thenDoNotQueryRepository() {
+        when(fuzzyIndex.search("пила", 0L, 10)).thenReturn(List.of());
+
+        assertTrue(itemServiceImpl.getItemsDtoByFuzzySearch("пила", PageRequest.of(0, 10)).isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
     @Test
     void getItemsBySearch_whenItemsAvailableFalse_thenReturnEmptyList() {
         Pageable page = PageRequest.of(0, 10);
         String search = "DesC";
-        when(itemRepository.getItemsBySearchQuery("DesC", page)).thenReturn(new ArrayList<>());
+        when(searchCache.get(eq("DesC"), eq(0L), eq(10), any()))
+                .thenAnswer(invocation -> invocation.<Function<String, List<ItemDto>>>getArgument(3).apply("desc"));
+        when(searchEngine.search("desc", page)).thenReturn(new ArrayList<>());
 
         Collection<ItemDto> items = itemServiceImpl.getItemsDtoBySearch(search, page);
         List<ItemDto> itemsList = new ArrayList<>(items);
@@ -380,23 +646,22 @@ public class ItemServiceImplTest {
 
     @Test
     void addCommentToItem_whenItemAndUserExistAndCommentDataCorrect_thenReturnComment() {
-        List<Booking> bookings = List.of(Booking.builder()
-                .item(null)
-                .start(null)
-                .end(null)
-                .status(BookingStatus.APPROVED)
-                .build());
-        Comment expectedComment = Comment.builder().id(1L).text("text").build();
+        LocalDateTime created = LocalDateTime.now();
+        Comment expectedComment = Comment.builder().id(1L).text("text").created(created).build();
+        when(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(true);
         when(userValidator.checkingUserId(1L)).thenReturn(toUserDto(owner));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(any(Long.class), any(Long.class),
-                any(LocalDateTime.class)))
-                .thenReturn(bookings);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(itemRepository.getReferenceById(1L)).thenReturn(item);
         when(commentRepository.save(any(Comment.class))).thenReturn(expectedComment);
 
-        CommentDto actualComment = itemServiceImpl.addCommentToItem(1L, 1L, toCommentDto(expectedComment));
+        CommentDto actualComment = itemServiceImpl.addCommentToItem(1L, 1L, CommentDto.builder().text("text")
+                .created(created).build());
 
-        assertEquals(toCommentDto(expectedComment), actualComment);
+        assertEquals(actualComment, new CommentDto(1L, "text", null, owner.getName(), created));
+        verify(itemRepository).incrementCommentsCount(1L);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -414,7 +679,8 @@ public class ItemServiceImplTest {
     @Test
     void addCommentToItem_whenUserNotExists_thenThrowEntityNotFoundException() {
         Comment comment = Comment.builder().build();
-        when(userValidator.checkingUserId(1L)).thenThrow(new DataNotFoundException("Пользователя не существует!"));
+        doThrow(new DataNotFoundException("Пользователя не существует!")).when(userValidator)
+                .checkingUserIdAndNotReturn(1L);
 
         DataNotFoundException entityNotFoundException = assertThrows(DataNotFoundException.class,
                 () -> itemServiceImpl.addCommentToItem(1L, 1L, toCommentDto(comment)));
@@ -429,13 +695,18 @@ public class ItemServiceImplTest {
                 .text("text")
                 .created(LocalDateTime.now())
                 .build();
-        when(bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(any(Long.class), any(Long.class),
-                any(LocalDateTime.class)))
-                .thenReturn(new ArrayList<>());
+        when(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(false);
 
         DataValidationException dataValidationException = assertThrows(DataValidationException.class,
                 () -> itemServiceImpl.addCommentToItem(1L, 1L, toCommentDto(expectedComment)));
 
         assertEquals(dataValidationException.getMessage(), "Данный пользователь не бронировал вещь");
+        verify(commentRepository, never()).save(any(Comment.class));
+    }
+
+    private BookingInterval interval(LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingInterval.class,
+                Map.of("id", 1L, "itemId", 1L, "start", start, "end", end));
     }
-}
\ No newline at end of file
+}
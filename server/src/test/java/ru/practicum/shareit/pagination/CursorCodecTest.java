@@ -0,0 +1,46 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.exception.DataValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorCodecTest {
+
+    @Test
+    void decode_whenTokenEncoded_thenReturnSamePosition() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 5, 1, 10, 0), 7L);
+
+        assertEquals(BookingCursor.decode(cursor.encode()), cursor);
+    }
+
+    @Test
+    void decode_whenTokenIsEmpty_thenReturnFirstPage() {
+        assertEquals(BookingCursor.decode(""), BookingCursor.first());
+    }
+
+    @Test
+    void decode_whenTokenHasExtraParts_thenThrowDataValidationException() {
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2030-05-01T10:00|7|1".getBytes(StandardCharsets.UTF_8));
+
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> BookingCursor.decode(token));
+
+        assertEquals(exception.getMessage(), "Некорректный курсор: " + token);
+    }
+
+    @Test
+    void decode_whenTokenIsNotBase64_thenThrowDataValidationException() {
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> CursorCodec.decode("%%%", 1, () -> 0L, parts -> Long.parseLong(parts[0])));
+
+        assertEquals(exception.getMessage(), "Некорректный курсор: %%%");
+    }
+}
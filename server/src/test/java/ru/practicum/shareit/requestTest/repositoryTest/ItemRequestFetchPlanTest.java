@@ -0,0 +1,114 @@
+package ru.practicum.shareit.requestTest.repositoryTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestServicelmpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validator.RequestValidatorService;
+import ru.practicum.shareit.validator.UserValidatorService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class ItemRequestFetchPlanTest {
+    private static final int REQUESTS = 20;
+    private static final int ITEMS_PER_REQUEST = 3;
+
+    private long requesterId;
+    private long otherUserId;
+    private ItemRequestServicelmpl requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void addRequests() {
+        requestService = new ItemRequestServicelmpl(requestRepository, itemRepository, userRepository,
+                new UserValidatorService(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                new RequestValidatorService(requestRepository));
+        LocalDateTime now = LocalDateTime.now();
+        User requester = entityManager.persist(User.builder().name("requester").email("requester@mail.ru").build());
+        User other = entityManager.persist(User.builder().name("other").email("other@mail.ru").build());
+        requesterId = requester.getId();
+        otherUserId = other.getId();
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequest request = entityManager.persist(ItemRequest.builder().description("request" + i)
+                    .requester(requester).creationDate(now.minusHours(i)).build());
+            for (int j = 0; j < ITEMS_PER_REQUEST; j++) {
+                User owner = entityManager.persist(User.builder().name("owner" + i + "-" + j)
+                        .email("owner" + i + "-" + j + "@mail.ru").build());
+                entityManager.persist(Item.builder().name("item" + i + "-" + j).description("desc")
+                        .available(true).owner(owner).request(request).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getAllUserRequestsWithResponses_whenRequestsHaveItems_thenStatementCountDoesNotGrow() {
+        long statements = countStatements(() -> requestService.getAllUserRequestsWithResponses(requesterId));
+
+        assertEquals(statements, 3);
+    }
+
+    @Test
+    void getAllRequestsToResponse_whenPageIsMapped_thenStatementCountDoesNotGrowWithPageSize() {
+        long fullPage = countStatements(() -> requestService.getAllRequestsToResponse(otherUserId,
+                PageRequest.of(0, REQUESTS)));
+        entityManager.clear();
+        long smallPage = countStatements(() -> requestService.getAllRequestsToResponse(otherUserId,
+                PageRequest.of(0, 2)));
+
+        assertEquals(3, fullPage);
+        assertEquals(smallPage, fullPage);
+    }
+
+    private long countStatements(Supplier<Collection<ItemRequestDto>> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Collection<ItemRequestDto> requests = query.get();
+        requests.forEach(request -> {
+            assertNotNull(request.getRequester().getName());
+            assertEquals(request.getItems().size(), ITEMS_PER_REQUEST);
+            request.getItems().forEach(item -> assertNotNull(item.getOwnerId()));
+        });
+
+        assertFalse(requests.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+}
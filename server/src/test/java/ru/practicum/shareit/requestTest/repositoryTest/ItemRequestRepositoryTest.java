@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
@@ -30,6 +31,9 @@ public class ItemRequestRepositoryTest {
     @Autowired
    private UserRepository userRepository;
 
+    @Autowired
+   private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     public void addRequests() {
         User userOne = User.builder()
@@ -77,6 +81,14 @@ public class ItemRequestRepositoryTest {
         assertEquals(requestList.get(0).getRequester().getEmail(), "mail2@mail.ru");
     }
 
+    @Test
+    void findAllByRequesterId_whenExplained_thenPlanUsesRequesterCreatedIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM requests WHERE requester_id = " +
+                userOneId + " AND creation_date < CURRENT_TIMESTAMP ORDER BY creation_date", String.class);
+
+        assertTrue(plan.contains("IDX_REQUESTS_REQUESTER_CREATED"), plan);
+    }
+
     @AfterEach
     public void deleteItems() {
         itemRequestRepository.deleteAll();
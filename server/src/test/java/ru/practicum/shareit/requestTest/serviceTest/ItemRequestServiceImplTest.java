@@ -11,10 +11,12 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DataValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServicelmpl;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validator.RequestValidatorService;
 import ru.practicum.shareit.validator.UserValidatorService;
@@ -38,6 +40,9 @@ public class ItemRequestServiceImplTest {
     @Mock
    private RequestRepository requestRepository;
 
+    @Mock
+   private ItemRepository itemRepository;
+
     @Mock
    private UserValidatorService userValidator;
 
@@ -76,7 +81,7 @@ public class ItemRequestServiceImplTest {
     @Test
     void addNewRequest_whenUserExists_thenReturnItemRequestDto() {
         itemRequest.setResponsesToRequest(List.of(item));
-        when(userValidator.returnUserIfExists(anyLong())).thenReturn(owner);
+        when(userValidator.checkingUserId(anyLong())).thenReturn(UserMapper.toUserDto(owner));
         when(requestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
 
         ItemRequestDto actualRequest = requestService.addNewRequest(toItemRequestDto(itemRequest), 1L);
@@ -88,6 +93,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void addNewRequest_whenUserNotExists_thenThrowEntityNotFoundException() {
+        when(userValidator.checkingUserId(anyLong())).thenReturn(UserMapper.toUserDto(owner));
         when(requestRepository.save(any(ItemRequest.class)))
                 .thenThrow(new DataNotFoundException("Пользователь не существует!"));
 
@@ -100,7 +106,7 @@ public class ItemRequestServiceImplTest {
     @Test
     void addNewRequest_whenUserExistsAndRequestDataIsIncorrect_thenThrowIncorrectDataException() {
         itemRequest.setResponsesToRequest(List.of(item));
-        when(userValidator.returnUserIfExists(anyLong()))
+        when(userValidator.checkingUserId(anyLong()))
                 .thenThrow(new DataValidationException("Описание не может быть пустым"));
 
         DataValidationException dataValidationException = assertThrows(DataValidationException.class,
@@ -161,7 +167,21 @@ public class ItemRequestServiceImplTest {
 
         ItemRequestDto actualRequest = requestService.getRequestById(1L, 1L);
 
-        assertEquals(actualRequest, toItemRequestDto(expectedRequest));
+        assertEquals(actualRequest, toItemRequestDto(expectedRequest, List.of()));
+    }
+
+    @Test
+    void getAllUserRequestsWithResponses_whenRequestsHaveItems_thenLoadItemsOnceAndGroupByRequest() {
+        ItemRequest emptyRequest = ItemRequest.builder().id(2L).requester(owner).description("text2").build();
+        doNothing().when(userValidator).checkingUserIdAndNotReturn(1L);
+        when(requestRepository.findAllByRequester_Id(1L)).thenReturn(List.of(itemRequest, emptyRequest));
+        when(itemRepository.findAllByRequest_IdIn(List.of(1L, 2L))).thenReturn(List.of(item));
+
+        List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllUserRequestsWithResponses(1L));
+
+        assertEquals(requests.get(0).getItems(), List.of(makeResultItemDto(item)));
+        assertEquals(requests.get(1).getItems(), List.of());
+        verify(itemRepository, times(1)).findAllByRequest_IdIn(anyCollection());
     }
 
     @Test
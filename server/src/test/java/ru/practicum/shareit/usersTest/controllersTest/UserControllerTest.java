@@ -7,12 +7,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.EmailCheckRequestDto;
+import ru.practicum.shareit.user.dto.EmailCheckResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
+import ru.practicum.shareit.user.service.UserExporter;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +44,9 @@ public class UserControllerTest {
     @MockBean
    private UserService userService;
 
+    @MockBean
+   private UserExporter userExporter;
+
     @SneakyThrows
     @Test
     void getAllUsers() {
@@ -50,14 +63,90 @@ public class UserControllerTest {
         List<UserDto> usersDto = new ArrayList<>();
         usersDto.add(user1);
         usersDto.add(user2);
-        when(userService.getUsersDto())
+        when(userService.getUsersDto(Pageable.unpaged()))
                 .thenReturn(usersDto);
         mockMvc.perform(get("/users")
                  .contentType(MediaType.APPLICATION_JSON))
                  .andExpect(status().isOk())
                  .andExpect(content().json(objectMapper.writeValueAsString(usersDto)));
 
-        verify(userService, times(1)).getUsersDto();
+        verify(userService, times(1)).getUsersDto(Pageable.unpaged());
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsers_whenOnlyFromGiven_thenUseDefaultPageSize() {
+        when(userService.getUsersDto(PageRequest.of(2, 100)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/users")
+                        .param("from", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(userService, times(1)).getUsersDto(PageRequest.of(2, 100));
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsersPage() {
+        UserPageDto page = UserPageDto.builder()
+                .users(List.of(UserDto.builder()
+                        .id(6L)
+                        .name("name")
+                        .email("email@mai.ru")
+                        .build()))
+                .next("Ng")
+                .build();
+        when(userService.getUsersPage("NQ", 2))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/users")
+                        .param("cursor", "NQ")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+
+        verify(userService, never()).getUsersDto(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsers_whenSizeTooLarge_thenReturnBadRequest() {
+        mockMvc.perform(get("/users")
+                        .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsers_whenSizeIsZero_thenReturnBadRequest() {
+        mockMvc.perform(get("/users")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @SneakyThrows
+    @Test
+    void exportUsers() {
+        doAnswer(invocation -> {
+            OutputStream target = invocation.getArgument(0);
+            target.write("{\"id\":1,\"name\":\"name\",\"email\":\"email@mai.ru\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(userExporter).exportUsers(any());
+
+        MvcResult started = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1,\"name\":\"name\",\"email\":\"email@mai.ru\"}\n"));
     }
 
     @SneakyThrows
@@ -138,4 +227,42 @@ public class UserControllerTest {
         verify(userService, times(1)).delete(userId);
 
    }
+
+    @SneakyThrows
+    @Test
+    void checkEmails() {
+        EmailCheckRequestDto request = new EmailCheckRequestDto(List.of("taken@mail.ru", "free@mail.ru"));
+        EmailCheckResultDto result = new EmailCheckResultDto(List.of("taken@mail.ru"), List.of("free@mail.ru"));
+        when(userService.checkEmails(request.getEmails())).thenReturn(result);
+
+        mockMvc.perform(post("/users/emails/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(result)));
+    }
+
+    @SneakyThrows
+    @Test
+    void checkEmails_whenTooManyEmails_thenReturnBadRequest() {
+        EmailCheckRequestDto request = new EmailCheckRequestDto(Collections.nCopies(1001, "mail@mail.ru"));
+
+        mockMvc.perform(post("/users/emails/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @SneakyThrows
+    @Test
+    void checkEmails_whenEmailIsNull_thenReturnBadRequest() {
+        mockMvc.perform(post("/users/emails/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emails\":[null]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
 }
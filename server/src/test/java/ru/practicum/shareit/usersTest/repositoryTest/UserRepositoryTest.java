@@ -3,13 +3,16 @@ package ru.practicum.shareit.usersTest.repositoryTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -25,11 +28,10 @@ public class UserRepositoryTest {
                 .name("name")
                 .email("email@mai.ru")
                 .build();
-        userRepository.save(user);
-        List<User> findUserByEmail = userRepository.findByEmail("email@mai.ru");
-        User userForEmail = findUserByEmail.get(0);
-        assertEquals(user.getName(), userForEmail.getName());
-        assertEquals(user.getEmail(), userForEmail.getEmail());
+        User saved = userRepository.save(user);
+        assertTrue(userRepository.existsByEmail("email@mai.ru"));
+        assertTrue(userRepository.existsByEmailAndIdNot("email@mai.ru", saved.getId() + 1));
+        assertFalse(userRepository.existsByEmailAndIdNot("email@mai.ru", saved.getId()));
     }
 
     @Test
@@ -40,7 +42,39 @@ public class UserRepositoryTest {
                 .email("email@mai.ru")
                 .build();
         userRepository.save(user);
-        List<User> findUserByEmail = userRepository.findByEmail("email2@mai.ru");
-        assertEquals(findUserByEmail.size(), 0);
+        assertFalse(userRepository.existsByEmail("email2@mai.ru"));
+    }
+
+    @Test
+    void findEmailsInTest() {
+        userRepository.save(User.builder().name("first").email("first@mai.ru").build());
+        userRepository.save(User.builder().name("second").email("second@mai.ru").build());
+
+        List<String> emails = userRepository.findEmailsIn(List.of("second@mai.ru", "third@mai.ru"));
+
+        assertEquals(emails, List.of("second@mai.ru"));
+    }
+
+    @Test
+    void findAllByIdGreaterThanOrderByIdAscTest() {
+        User first = userRepository.save(User.builder().name("first").email("first@mai.ru").build());
+        User second = userRepository.save(User.builder().name("second").email("second@mai.ru").build());
+        User third = userRepository.save(User.builder().name("third").email("third@mai.ru").build());
+
+        List<User> page = userRepository.findAllByIdGreaterThanOrderByIdAsc(first.getId(), PageRequest.of(0, 1));
+
+        assertEquals(page, List.of(second));
+        assertEquals(userRepository.findAllByIdGreaterThanOrderByIdAsc(second.getId(), PageRequest.of(0, 5)),
+                List.of(third));
+    }
+
+    @Test
+    void streamAllTest() {
+        User first = userRepository.save(User.builder().name("first").email("first@mai.ru").build());
+        User second = userRepository.save(User.builder().name("second").email("second@mai.ru").build());
+
+        try (Stream<User> users = userRepository.streamAll()) {
+            assertEquals(users.map(User::getId).collect(Collectors.toList()), List.of(first.getId(), second.getId()));
+        }
     }
 }
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.usersTest.serviceTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserEmailFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserEmailFilterTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private UserEmailFilter filter;
+
+    @BeforeEach
+    public void createFilter() {
+        filter = new UserEmailFilter(userRepository, 1000, 0.01);
+    }
+
+    @Test
+    void mightContain_whenNotLoaded_thenTreatEveryEmailAsPossiblyTaken() {
+        assertTrue(filter.mightContain("free@mail.ru"));
+    }
+
+    @Test
+    void mightContain_whenLoaded_thenKnowRegisteredAndAddedEmails() {
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of(User.builder().id(1L).name("user").email("user@mail.ru").build()));
+
+        filter.load();
+        filter.add("added@mail.ru");
+
+        assertTrue(filter.mightContain("user@mail.ru"));
+        assertTrue(filter.mightContain("added@mail.ru"));
+        assertFalse(filter.mightContain("free@mail.ru"));
+    }
+
+    @Test
+    void mightContain_whenFilterIsFull_thenKeepFalsePositiveRateNearConfigured() {
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of());
+        filter.load();
+        for (int i = 0; i < 1000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("new" + i + "@mail.ru")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "Ложных срабатываний: " + falsePositives);
+    }
+}
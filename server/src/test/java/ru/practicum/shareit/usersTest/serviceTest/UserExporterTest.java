@@ -0,0 +1,54 @@
+package ru.practicum.shareit.usersTest.serviceTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExporter;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExporterTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExporter exporter;
+
+    @BeforeEach
+    public void createExporter() {
+        exporter = new UserExporter(userRepository, entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void exportUsers_whenUsersExist_thenWriteOneLinePerUserAndDetachThem() {
+        User first = User.builder().id(1L).name("first").email("first@mail.ru").build();
+        User second = User.builder().id(2L).name("second").email("second@mail.ru").build();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAll()).thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        long exported = exporter.exportUsers(target);
+
+        assertEquals(exported, 2);
+        assertEquals(target.toString(StandardCharsets.UTF_8),
+                "{\"id\":1,\"name\":\"first\",\"email\":\"first@mail.ru\"}\n" +
+                "{\"id\":2,\"name\":\"second\",\"email\":\"second@mail.ru\"}\n");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertTrue(closed.get());
+    }
+}
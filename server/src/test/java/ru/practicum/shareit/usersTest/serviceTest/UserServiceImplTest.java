@@ -6,15 +6,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.exception.EmailIsAlreadyRegisteredException;
+import ru.practicum.shareit.user.dto.EmailCheckResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserEmailFilter;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.validator.UserValidatorService;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +42,9 @@ public class UserServiceImplTest {
     @Mock
    private UserValidatorService userValidator;
 
+    @Mock
+   private UserEmailFilter emailFilter;
+
     @InjectMocks
    private UserServiceImpl userService;
 
@@ -62,6 +75,37 @@ public class UserServiceImplTest {
         assertEquals(expectedUser.getEmail(), actualUser.getEmail());
     }
 
+    @Test
+    void create_whenEmailIsTaken_thenThrowWithoutInsert() {
+        when(emailFilter.mightContain("mail@Mail.ru")).thenReturn(true);
+        when(userRepository.existsByEmail("mail@Mail.ru")).thenReturn(true);
+
+        EmailIsAlreadyRegisteredException exception = assertThrows(EmailIsAlreadyRegisteredException.class,
+                () -> userService.createUserDto(toUserDto(user)));
+
+        assertEquals(exception.getMessage(), "Пользователь с таким email уже зарегистрирован!");
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void create_whenEmailNotInFilter_thenSkipEmailQueryAndAddEmailToFilter() {
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.createUserDto(toUserDto(user));
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailFilter).add("mail@Mail.ru");
+    }
+
+    @Test
+    void create_whenEmailTakenConcurrently_thenThrowEmailIsAlreadyRegisteredException() {
+        when(emailFilter.mightContain("mail@Mail.ru")).thenReturn(true);
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("UQ_USER_EMAIL"));
+
+        assertThrows(EmailIsAlreadyRegisteredException.class, () -> userService.createUserDto(toUserDto(user)));
+        verify(emailFilter, never()).add(anyString());
+    }
+
     @Test
     void create_whenDataIsIncorrect_thenThrowEmptyFieldExceptionException() {
         User expectedUser = new User();
@@ -94,16 +138,52 @@ public class UserServiceImplTest {
 
     @Test
     void getAll_whenDataExists_thenReturnEmptyCollection() {
-        when(userService.getUsersDto()).thenReturn(Collections.emptyList());
+        when(userRepository.findAllBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(Collections.emptyList());
 
-        Collection<UserDto> users = userService.getUsersDto();
+        Collection<UserDto> users = userService.getUsersDto(PageRequest.of(0, 10));
 
         assertEquals(users.size(), 0);
     }
 
+    @Test
+    void getAll_whenUnpaged_thenReturnAllUsersOrderedById() {
+        when(userRepository.findAll(Sort.by("id"))).thenReturn(List.of(user));
+
+        Collection<UserDto> users = userService.getUsersDto(Pageable.unpaged());
+
+        assertEquals(List.of(toUserDto(user)), users);
+        verify(userRepository, never()).findAllBy(any());
+    }
+
+    @Test
+    void getPage_whenMoreUsersExist_thenReturnPageWithNextCursor() {
+        User third = User.builder().id(3L).name("name3").email("mail@Mail3.ru").build();
+        updateUser.setId(2L);
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(user, updateUser, third));
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(third));
+
+        UserPageDto first = userService.getUsersPage("", 2);
+        UserPageDto last = userService.getUsersPage(first.getNext(), 2);
+
+        assertEquals(first.getUsers(), List.of(toUserDto(user), toUserDto(updateUser)));
+        assertEquals(last.getUsers(), List.of(toUserDto(third)));
+        assertNull(last.getNext());
+    }
+
+    @Test
+    void getPage_whenCursorIsIncorrect_thenThrowDataValidationException() {
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> userService.getUsersPage("не курсор", 2));
+
+        assertEquals(exception.getMessage(), "Некорректный курсор: не курсор");
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void update_whenUserExists_thenReturnUpdatedUser() {
-        when(userValidator.returnUserIfExists(1L)).thenReturn(user);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(userRepository.save(user)).thenReturn(updateUser);
 
         UserDto actualUser = userService.updateUserDto(toUserDto(updateUser),1L);
@@ -111,17 +191,51 @@ public class UserServiceImplTest {
         assertEquals(toUserDto(updateUser), actualUser);
         verify(userRepository, times(1))
                 .save(updateUser);
+        verify(userValidator).invalidate(1L);
+    }
+
+    @Test
+    void update_whenEmailTakenByAnotherUser_thenThrowEmailIsAlreadyRegisteredException() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain("mail@Mail2.ru")).thenReturn(true);
+        when(userRepository.existsByEmailAndIdNot("mail@Mail2.ru", 1L)).thenReturn(true);
+
+        assertThrows(EmailIsAlreadyRegisteredException.class,
+                () -> userService.updateUserDto(toUserDto(updateUser), 1L));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void checkEmails_whenSomeEmailsAreRegistered_thenQueryDistinctEmailsOnce() {
+        when(userRepository.findEmailsIn(List.of("new@mail.ru", "mail@Mail.ru")))
+                .thenReturn(List.of("mail@Mail.ru"));
+
+        EmailCheckResultDto result = userService.checkEmails(List.of("new@mail.ru", "mail@Mail.ru",
+                "new@mail.ru"));
+
+        assertEquals(result.getTaken(), List.of("mail@Mail.ru"));
+        assertEquals(result.getAvailable(), List.of("new@mail.ru", "new@mail.ru"));
+    }
+
+    @Test
+    void checkEmails_whenEmailMissingInFilter_thenStillCheckDatabase() {
+        when(userRepository.findEmailsIn(List.of("other@mail.ru"))).thenReturn(List.of("other@mail.ru"));
+
+        EmailCheckResultDto result = userService.checkEmails(List.of("other@mail.ru"));
+
+        assertEquals(result.getTaken(), List.of("other@mail.ru"));
+        verifyNoInteractions(emailFilter);
     }
 
     @Test
     void update_whenUserNotExists_thenThrowEntityNotFoundException() {
-        when(userValidator.returnUserIfExists(1L))
-                .thenThrow(new DataNotFoundException("Пользователь не существует!"));
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
                 () -> userService.updateUserDto(toUserDto(updateUser), 1L));
 
-        assertEquals(dataNotFoundException.getMessage(), "Пользователь не существует!");
+        assertEquals(dataNotFoundException.getMessage(), "Пользователь по id - 1 не найден");
+        verify(userValidator, never()).invalidate(anyLong());
     }
 
     @Test
@@ -129,6 +243,7 @@ public class UserServiceImplTest {
         userService.delete(1L);
         verify(userRepository, times(1))
                 .deleteById(1L);
+        verify(userValidator).invalidate(1L);
     }
 
     @Test
@@ -17,4 +17,14 @@ public class PageValidatorTest {
 
         assertEquals(exception.getMessage(), "Размер страницы не может быть меньше нуля");
     }
+
+    @Test
+    void checkingCursorPageSize_whenSizeTooLarge_thenThrowIncorrectDataException() {
+        PageValidatorService validator = new PageValidatorService();
+
+        IncorrectNumberPageException exception = assertThrows(IncorrectNumberPageException.class,
+                () -> validator.checkingCursorPageSize(Integer.MAX_VALUE));
+
+        assertEquals(exception.getMessage(), "Размер страницы не может быть больше 1000");
+    }
 }
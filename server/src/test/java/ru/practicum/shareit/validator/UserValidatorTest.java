@@ -1,18 +1,28 @@
 package ru.practicum.shareit.validator;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DataValidationException;
+import ru.practicum.shareit.user.dto.EmailCheckRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserValidatorTest {
@@ -20,8 +30,14 @@ public class UserValidatorTest {
     @Mock
    private UserRepository userRepository;
 
-    @InjectMocks
    private UserValidatorService userValidator;
+   private final User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+
+    @BeforeEach
+    public void createValidator() {
+        userValidator = new UserValidatorService(userRepository, 100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+    }
 
     @Test
     void validateUserId_whenUserNotExists_thenThrowEntityNotFoundException() {
@@ -44,13 +60,13 @@ public class UserValidatorTest {
 
     @Test
     void validateUserIdAndReturns_whenUserNotExists_thenThrowEntityNotFoundException() {
-        when(userRepository.findById(anyLong())).thenThrow(new DataNotFoundException("Пользователя под номером : " +
-                "1 не существует!"));
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         DataNotFoundException exception = assertThrows(DataNotFoundException.class,
                 () -> userValidator.returnUserIfExists(1L));
 
-        assertEquals(exception.getMessage(), "Пользователя под номером : 1 не существует!");
+        assertEquals(exception.getMessage(), "Пользователь по id - 1 не найден");
+        verify(userRepository, never()).getReferenceById(anyLong());
     }
 
     @Test
@@ -68,4 +84,100 @@ public class UserValidatorTest {
 
         assertEquals(exception.getMessage(), "Пользователь по id - 1 не найден");
     }
+
+    @Test
+    void checkingUserId_whenCalledTwice_thenLoadUserOnceAndReturnCopies() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDto first = userValidator.checkingUserId(1L);
+        first.setName("changed");
+        UserDto second = userValidator.checkingUserId(1L);
+
+        assertEquals(second.getName(), "user");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void returnUserIfExists_whenUserExists_thenReturnReferenceWithoutLoading() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        assertEquals(userValidator.returnUserIfExists(1L), user);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkingUserIdAndNotReturn_whenUserExists_thenNotLoadUser() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userValidator.checkingUserIdAndNotReturn(1L);
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkingUserIdAndNotReturn_whenUserCached_thenNotQueryRepository() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userValidator.checkingUserId(1L);
+
+        userValidator.checkingUserIdAndNotReturn(1L);
+
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void invalidate_whenUserChanged_thenLoadUserAgain() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user))
+                .thenReturn(Optional.of(User.builder().id(1L).name("updated").email("user@mail.ru").build()));
+        userValidator.checkingUserId(1L);
+
+        userValidator.invalidate(1L);
+
+        assertEquals(userValidator.checkingUserId(1L).getName(), "updated");
+    }
+
+    @Test
+    void checkingUserId_whenUserNotFound_thenNotCacheAbsence() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(user));
+
+        assertThrows(DataNotFoundException.class, () -> userValidator.checkingUserId(1L));
+
+        assertEquals(userValidator.checkingUserId(1L).getName(), "user");
+    }
+
+    @Test
+    void validateEmailCheck_whenTooManyEmails_thenThrowDataValidationException() {
+        EmailCheckRequestDto request = new EmailCheckRequestDto(Collections.nCopies(1001, "mail@mail.ru"));
+
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> userValidator.validateEmailCheck(request));
+
+        assertEquals(exception.getMessage(), "Можно проверить не больше 1000 адресов за запрос");
+    }
+
+    @Test
+    void validateEmailCheck_whenNoEmails_thenThrowDataValidationException() {
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> userValidator.validateEmailCheck(new EmailCheckRequestDto(null)));
+
+        assertEquals(exception.getMessage(), "Не переданы адреса для проверки");
+    }
+
+    @Test
+    void validateEmailCheck_whenEmailIsNull_thenThrowDataValidationException() {
+        EmailCheckRequestDto request = new EmailCheckRequestDto(Arrays.asList("mail@mail.ru", null));
+
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> userValidator.validateEmailCheck(request));
+
+        assertEquals(exception.getMessage(), "Адрес для проверки не может быть пустым");
+    }
+
+    @Test
+    void validateEmailCheck_whenEmailIsBlank_thenThrowDataValidationException() {
+        DataValidationException exception = assertThrows(DataValidationException.class,
+                () -> userValidator.validateEmailCheck(new EmailCheckRequestDto(List.of(" "))));
+
+        assertEquals(exception.getMessage(), "Адрес для проверки не может быть пустым");
+    }
 }